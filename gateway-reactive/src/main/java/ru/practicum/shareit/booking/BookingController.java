@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.BookingException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class BookingController {
+
+    private final BookingClient bookingClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader(USER_ID) Long userId,
+                                                           @RequestBody @Valid BookingDtoRequest requestDto) {
+
+        log.info("POST-запрос '/bookings' на создание запроса на бронирование: {} пользователем с id: {}",
+                requestDto, userId);
+
+        return bookingClient.bookItem(userId, requestDto);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approvedBooking(@RequestHeader(USER_ID) Long userId, @PathVariable Long bookingId,
+                                                                  @RequestParam Boolean approved) {
+
+        log.info("PATCH-запрос '/bookings/{bookingId}' " +
+                "на подтверждение/отклонение бронирования: {} пользователем с id: {}", bookingId, userId);
+
+        return bookingClient.approveBooking(userId, approved, bookingId);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader(USER_ID) Long userId,
+                                                             @PathVariable Long bookingId) {
+
+        log.info("GET-запрос '/bookings/{bookingId}' на получение данных " +
+                "о бронировании с bookingId: {} пользователем с id: {}", bookingId, userId);
+
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(@RequestHeader(USER_ID) Long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "after", required = false) String after) {
+
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
+
+        log.info("GET-запрос '/bookings' бронирований пользователя с id:{}, state:{}", userId, stateParam);
+
+        if (after != null) {
+            return bookingClient.getBookings(userId, state, after, size);
+        }
+        return bookingClient.getBookings(userId, state, from, size);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingsByOwner(@RequestHeader(USER_ID) Long userId,
+                                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                     @RequestParam(name = "after", required = false) String after) {
+
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
+
+        log.info("GET-запрос '/bookings/owner' ownerID:{}, state:{},", userId, stateParam);
+
+        if (after != null) {
+            return bookingClient.getBookingsByOwner(userId, state, after, size);
+        }
+        return bookingClient.getBookingsByOwner(userId, state, from, size);
+    }
+}
\ No newline at end of file
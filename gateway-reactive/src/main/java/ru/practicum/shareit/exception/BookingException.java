@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class BookingException extends RuntimeException {
+
+    public BookingException(String message) {
+        super(message);
+    }
+}
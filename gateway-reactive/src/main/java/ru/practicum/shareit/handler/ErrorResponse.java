@@ -0,0 +1,14 @@
+package ru.practicum.shareit.handler;
+
+public class ErrorResponse {
+
+    private final String error;
+
+    public ErrorResponse(String error) {
+        this.error = error;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.marker.Create;
+import ru.practicum.shareit.marker.Update;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@Controller
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ItemController {
+
+    private final ItemClient itemClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@RequestHeader(USER_ID) Long userId,
+                                                             @Validated(Create.class) @RequestBody ItemShortDto item) {
+
+        log.info("POST-запрос: '/items' на создание вещи владельцем с id={}", userId);
+
+        return itemClient.createItem(userId, item);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestHeader(USER_ID) Long userId,
+                                                             @PathVariable Long itemId,
+                                                             @Validated(Update.class) @RequestBody ItemShortDto item) {
+
+        log.info("PATCH-запрос: '/items/{itemId}' на обновление вещи с id={}", itemId);
+
+        return itemClient.updateItem(userId, itemId, item);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(@RequestHeader(USER_ID) Long userId,
+                                                          @PathVariable Long itemId) {
+
+        log.info("GET-запрос: '/items/{itemId}' на получение вещи с id={}", itemId);
+
+        return itemClient.getItem(itemId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUser(@RequestHeader(USER_ID) Long userId,
+                                                                 @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                                 @RequestParam(name = "after", required = false) String after) {
+
+        log.info("GET-запрос: '/items' на получение всех вещей владельца с id={}", userId);
+
+        if (after != null) {
+            return itemClient.getItemsByUser(userId, after, size);
+        }
+        return itemClient.getItemsByUser(userId, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(@RequestHeader(USER_ID) Long userId,
+                                                                  @PathVariable Long itemId,
+                                                                  @RequestParam(name = "from", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam(name = "to", required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("GET-запрос: '/items/{itemId}/availability' на получение свободных окон вещи с id={}", itemId);
+
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItems(@RequestParam String text,
+                                                              @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                              @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+
+        if (text.isBlank()) {
+            log.info("Получен список из 0 вещей по запросу '{}'", text);
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(EMPTY_LIST))));
+        }
+
+        log.info("GET-запрос: '/items/search' на поиск вещи с текстом={}", text);
+
+        return itemClient.searchItems(text, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(@PathVariable Long itemId,
+                                                                @RequestHeader(USER_ID) Long userId,
+                                                                @Valid @RequestBody CommentShortDto comment) {
+
+        log.info("POST-запрос: '/{itemId}/comment' на создание комментария" +
+                " пользователем с id={} для вещи с id={}, текст комментария:{}", userId, itemId, comment);
+
+        return itemClient.createComment(itemId, userId, comment);
+    }
+
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.marker;
+
+public interface Update {
+}
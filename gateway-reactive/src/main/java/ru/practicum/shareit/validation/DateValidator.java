@@ -0,0 +1,24 @@
+package ru.practicum.shareit.validation;
+
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import java.time.LocalDateTime;
+
+public class DateValidator implements ConstraintValidator<StartBeforeEndDateValid, BookingDtoRequest> {
+    @Override
+    public void initialize(StartBeforeEndDateValid constraintAnnotation) {
+    }
+
+    @Override
+    public boolean isValid(BookingDtoRequest booking, ConstraintValidatorContext constraintValidatorContext) {
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+
+        if (start == null || end == null) {
+            return false;
+        }
+        return start.isBefore(end);
+    }
+}
\ No newline at end of file
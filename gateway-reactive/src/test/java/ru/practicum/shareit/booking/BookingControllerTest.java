@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.handler.ErrorHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingControllerTest {
+
+    @Mock
+    private BookingClient bookingClient;
+
+    @InjectMocks
+    private BookingController bookingController;
+    private WebTestClient webTestClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @BeforeEach
+    void startUp() {
+
+        webTestClient = WebTestClient
+                .bindToController(bookingController)
+                .controllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void createBooking_whenInvalidBookingStart_thenReturnBadRequest() {
+
+        BookingDtoRequest invalidBookingRequest = BookingDtoRequest.builder()
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .itemId(1L)
+                .build();
+
+        webTestClient.post().uri("/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_ID, "1")
+                .bodyValue(invalidBookingRequest)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void getBookings_whenUnknownState_thenReturnBadRequest() {
+
+        webTestClient.get().uri("/bookings?state=unknown")
+                .header(USER_ID, "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: unknown");
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void getBookings_whenServerResponds_thenBodyPassedThrough() {
+
+        String body = "[{\"id\":1,\"status\":\"WAITING\"}]";
+        when(bookingClient.getBookings(1L, BookingState.WAITING, 0, 10))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8))))));
+
+        webTestClient.get().uri("/bookings?state=waiting")
+                .header(USER_ID, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(body);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTest {
+
+    private static final String BODY = "[{\"id\":1,\"name\":\"Дрель\"}]";
+
+    private MockWebServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void startUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new TestClient(WebClient.builder()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(server.url("/items").toString()))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void get_whenServerResponds_thenBodyAndHeadersPassedThrough() throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Next-Cursor", "abc")
+                .setBody(BODY));
+
+        ResponseEntity<Flux<DataBuffer>> response = client.get("?from={from}&size={size}", 1L,
+                Map.of("from", 0, "size", 10)).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BODY, bodyOf(response));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/items?from=0&size=10", request.getPath());
+        assertEquals("1", request.getHeader("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void post_whenServerReturnsError_thenStatusAndBodyPassedThrough() throws InterruptedException {
+        String error = "{\"error\":\"Вещь с id 99 не существует\"}";
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(error));
+
+        ResponseEntity<Flux<DataBuffer>> response = client.post("/99/comment", 1L, Map.of("text", "Отлично")).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, bodyOf(response));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("{\"text\":\"Отлично\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    void get_whenBodyLargerThanCodecLimit_thenStreamedWithoutBuffering() {
+        String large = "[" + "{\"id\":1,\"name\":\"Дрель\"},".repeat(50_000) + "{\"id\":2}]";
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(large));
+
+        ResponseEntity<Flux<DataBuffer>> response = client.get("", 1L).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(large, bodyOf(response));
+    }
+
+    private static String bodyOf(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    String body = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .block();
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(WebClient client) {
+            super(client);
+        }
+    }
+}
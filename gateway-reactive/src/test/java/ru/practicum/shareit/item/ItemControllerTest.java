@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.handler.ErrorHandler;
+import ru.practicum.shareit.item.dto.CommentShortDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ItemControllerTest {
+
+    @Mock
+    private ItemClient itemClient;
+    @InjectMocks
+    private ItemController itemController;
+    private WebTestClient webTestClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @BeforeEach
+    void startUp() {
+        webTestClient = WebTestClient
+                .bindToController(itemController)
+                .controllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void createItem_whenInvalidItemName_thenReturnBadRequest() {
+        ItemShortDto invalidItem = ItemShortDto.builder()
+                .name("")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .build();
+
+        webTestClient.post().uri("/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_ID, "1")
+                .bodyValue(invalidItem)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void createComment_whenInvalidCommentSize_thenReturnBadRequest() {
+        CommentShortDto invalidComment = CommentShortDto.builder()
+                .text("a".repeat(513))
+                .build();
+
+        webTestClient.post().uri("/items/1/comment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_ID, "1")
+                .bodyValue(invalidComment)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getItemsByUser_whenServerReturnsLargeList_thenStreamedToClient() throws IOException {
+        String body = "[" + "{\"id\":1,\"name\":\"Дрель\"},".repeat(50_000) + "{\"id\":2}]";
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body));
+        server.start();
+        try {
+            ItemClient client = new ItemClient(server.url("").toString(), WebClient.builder());
+            byte[] response = WebTestClient
+                    .bindToController(new ItemController(client))
+                    .configureClient()
+                    // Лимит снят только у тестового клиента, шлюз должен пропустить тело без буферизации.
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                    .build()
+                    .get().uri("/items")
+                    .header(USER_ID, "1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectBody().returnResult().getResponseBody();
+
+            assertNotNull(response);
+            assertEquals(body, new String(response, StandardCharsets.UTF_8));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    void searchItems_whenBlankText_thenReturnEmptyListWithoutServerCall() {
+        webTestClient.get().uri("/items/search?text= ")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+        verifyNoInteractions(itemClient);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.handler.ErrorHandler;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RequestControllerTest {
+
+    @Mock
+    private RequestClient requestClient;
+    @InjectMocks
+    private RequestController requestController;
+    private WebTestClient webTestClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @BeforeEach
+    void startUp() {
+        webTestClient = WebTestClient
+                .bindToController(requestController)
+                .controllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void createItemRequest_whenEmptyItemRequest_thenReturnError() {
+        webTestClient.post().uri("/requests")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_ID, "1")
+                .bodyValue(new ItemRequestDto(""))
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(requestClient);
+    }
+}
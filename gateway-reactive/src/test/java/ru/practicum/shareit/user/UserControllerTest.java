@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.handler.ErrorHandler;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    @Mock
+    private UserClient userClient;
+    @InjectMocks
+    private UserController userController;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void startUp() {
+        webTestClient = WebTestClient
+                .bindToController(userController)
+                .controllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void createUser_whenInvalidEmailPattern_thenExceptionThrown() {
+        UserDto invalidUser = UserDto.builder()
+                .name("user")
+                .email("user.mail.ru")
+                .build();
+
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidUser)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    void updateUser_whenLargestUserName_thenExceptionThrown() {
+        UserDto invalidUser = UserDto.builder()
+                .name("a".repeat(256))
+                .build();
+
+        webTestClient.patch().uri("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidUser)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(userClient);
+    }
+}
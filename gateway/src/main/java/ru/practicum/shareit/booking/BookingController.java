@@ -2,17 +2,22 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.BookingException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -22,50 +27,71 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
 
     private final BookingClient bookingClient;
+    private final BookingEventClient bookingEventClient;
 
     private static final String USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
     public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID) Long userId,
-                                           @RequestBody @Valid BookingDtoRequest requestDto) {
+                                           @RequestBody @Valid BookingDtoRequest requestDto,
+                                           @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                           @Size(max = 255) String idempotencyKey) {
 
         log.info("POST-запрос '/bookings' на создание запроса на бронирование: {} пользователем с id: {}",
                 requestDto, userId);
 
-        return bookingClient.bookItem(userId, requestDto);
+        return bookingClient.bookItem(userId, requestDto, idempotencyKey);
     }
 
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approvedBooking(@RequestHeader(USER_ID) Long userId, @PathVariable Long bookingId,
-                                                  @RequestParam Boolean approved) {
+                                                  @RequestParam Boolean approved,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                          required = false) String ifMatch) {
 
         log.info("PATCH-запрос '/bookings/{bookingId}' " +
                 "на подтверждение/отклонение бронирования: {} пользователем с id: {}", bookingId, userId);
 
-        return bookingClient.approveBooking(userId, approved, bookingId);
+        return bookingClient.approveBooking(userId, approved, bookingId, ifMatch);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(@RequestHeader(USER_ID) Long userId,
+                                                  @RequestBody @Valid BookingBatchRequest batchRequest) {
+
+        log.info("PATCH-запрос '/bookings/batch' на подтверждение/отклонение бронирований: {} пользователем с id: {}",
+                batchRequest, userId);
+
+        return bookingClient.approveBookings(userId, batchRequest);
     }
 
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID) Long userId,
-                                             @PathVariable Long bookingId) {
+                                             @PathVariable Long bookingId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                     required = false) String ifNoneMatch) {
 
         log.info("GET-запрос '/bookings/{bookingId}' на получение данных " +
                 "о бронировании с bookingId: {} пользователем с id: {}", bookingId, userId);
 
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
     public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID) Long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "after", required = false) String after) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
 
         log.info("GET-запрос '/bookings' бронирований пользователя с id:{}, state:{}", userId, stateParam);
 
+        if (after != null) {
+            return bookingClient.getBookings(userId, state, after, size);
+        }
         return bookingClient.getBookings(userId, state, from, size);
     }
 
@@ -73,13 +99,49 @@ public class BookingController {
     public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_ID) Long userId,
                                                      @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "after", required = false) String after) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
 
         log.info("GET-запрос '/bookings/owner' ownerID:{}, state:{},", userId, stateParam);
 
+        if (after != null) {
+            return bookingClient.getBookingsByOwner(userId, state, after, size);
+        }
         return bookingClient.getBookingsByOwner(userId, state, from, size);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookingSummary(@RequestHeader(USER_ID) Long userId) {
+
+        log.info("GET-запрос '/bookings/summary' на получение счётчиков бронирований пользователя с id:{}", userId);
+
+        return bookingClient.getBookingSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getBookingSummaryByOwner(@RequestHeader(USER_ID) Long userId) {
+
+        log.info("GET-запрос '/bookings/owner/summary' на получение счётчиков бронирований владельца с id:{}", userId);
+
+        return bookingClient.getBookingSummaryByOwner(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(USER_ID) Long userId) {
+
+        log.info("GET-запрос '/bookings/owner/export' на выгрузку всех бронирований владельца с id:{}", userId);
+
+        return bookingClient.exportBookingsByOwner(userId);
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<StreamingResponseBody> streamBookingEvents(@RequestHeader(USER_ID) Long userId) {
+
+        log.info("GET-запрос '/bookings/events' на подписку на события бронирований пользователем с id:{}", userId);
+
+        return bookingEventClient.streamEvents(userId);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+@Service
+public class BookingEventClient extends BaseClient {
+
+    private static final String API_PREFIX = "/bookings";
+
+    public BookingEventClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                              @Qualifier("shareItEventsRequestFactory") ClientHttpRequestFactory requestFactory) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamEvents(Long userId) {
+        return stream("/events", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.marker.Create;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ImportClient extends BaseClient {
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int maxErrors;
+
+    public ImportClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                        @Qualifier("shareItStreamingRequestFactory") ClientHttpRequestFactory requestFactory,
+                        ObjectMapper objectMapper, Validator validator,
+                        @Value("${shareit.import.max-errors:1000}") int maxErrors) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxErrors = maxErrors;
+    }
+
+    public <T> ResponseEntity<Object> importRows(String path, Long userId, MediaType contentType, InputStream body,
+                                                 Class<T> type) {
+
+        ImportReport report = new ImportReport(maxErrors);
+        try {
+            ImportReport serverReport = rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (userId != null) {
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                }
+                Writer writer = new BufferedWriter(new OutputStreamWriter(request.getBody(), StandardCharsets.UTF_8));
+                ImportRows.read(body, contentType, type, objectMapper, new ImportRows.RowHandler<T>() {
+                    @Override
+                    public void row(long row, T value) {
+                        report.setTotal(report.getTotal() + 1);
+                        Set<ConstraintViolation<T>> violations = validator.validate(value, Create.class);
+                        if (!violations.isEmpty()) {
+                            report.rejected(row, describe(violations));
+                            return;
+                        }
+                        ObjectNode node = objectMapper.valueToTree(value);
+                        node.put("row", row);
+                        try {
+                            writer.write(node.toString());
+                            writer.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+
+                    @Override
+                    public void error(long row, String message) {
+                        report.setTotal(report.getTotal() + 1);
+                        report.rejected(row, message);
+                    }
+                });
+                writer.flush();
+            }, response -> objectMapper.readValue(response.getBody(), ImportReport.class));
+
+            ImportReport merged = report.merge(serverReport);
+            log.info("Импорт {}: строк {}, импортировано {}, ошибок {}", path, merged.getTotal(),
+                    merged.getImported(), merged.getFailed());
+            return ResponseEntity.ok(merged);
+        } catch (HttpStatusCodeException e) {
+            return errorResponse(e);
+        }
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+    private long total;
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    @JsonIgnore
+    private int maxErrors = Integer.MAX_VALUE;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void rejected(long row, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public ImportReport merge(ImportReport server) {
+
+        ImportReport merged = new ImportReport(maxErrors);
+        merged.total = total;
+        merged.imported = server.imported;
+        merged.failed = failed + server.failed;
+        merged.errorsTruncated = errorsTruncated || server.errorsTruncated;
+
+        int left = 0;
+        int right = 0;
+        while (left < errors.size() || right < server.errors.size()) {
+            if (merged.errors.size() == maxErrors) {
+                merged.errorsTruncated = true;
+                break;
+            }
+            if (right == server.errors.size()
+                    || left < errors.size() && errors.get(left).getRow() <= server.errors.get(right).getRow()) {
+                merged.errors.add(errors.get(left++));
+            } else {
+                merged.errors.add(server.errors.get(right++));
+            }
+        }
+        return merged;
+    }
+}
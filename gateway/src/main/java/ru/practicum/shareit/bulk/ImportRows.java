@@ -0,0 +1,91 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@UtilityClass
+public class ImportRows {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    public interface RowHandler<T> {
+
+        void row(long row, T value);
+
+        void error(long row, String message);
+    }
+
+    public <T> void read(InputStream body, MediaType contentType, Class<T> type, ObjectMapper objectMapper,
+                         RowHandler<T> handler) throws IOException {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            readCsv(reader, type, objectMapper, handler);
+        } else {
+            readNdjson(reader, type, objectMapper, handler);
+        }
+    }
+
+    private <T> void readNdjson(BufferedReader reader, Class<T> type, ObjectMapper objectMapper,
+                                RowHandler<T> handler) throws IOException {
+
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                handler.row(row, objectMapper.readValue(line, type));
+            } catch (JsonProcessingException e) {
+                handler.error(row, "Некорректная строка: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private <T> void readCsv(Reader reader, Class<T> type, ObjectMapper objectMapper,
+                             RowHandler<T> handler) throws IOException {
+
+        MappingIterator<Map<String, String>> records = CSV_MAPPER.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader);
+
+        long row = 0;
+        while (true) {
+            Map<String, String> record;
+            try {
+                if (!records.hasNextValue()) {
+                    return;
+                }
+                record = records.nextValue();
+            } catch (IOException | RuntimeException e) {
+                // После синтаксической ошибки CSV границы записей не восстановить, импорт останавливается.
+                handler.error(row + 1, "Некорректная строка CSV, импорт остановлен: " + e.getMessage());
+                return;
+            }
+            row++;
+            record.values().removeIf(String::isEmpty);
+            try {
+                handler.row(row, objectMapper.convertValue(record, type));
+            } catch (IllegalArgumentException e) {
+                handler.error(row, "Некорректная строка: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+
+import java.util.Map;
+
+@Service
+public class ChangeClient extends BaseClient {
+
+    private static final String API_PREFIX = "/changes";
+
+    @Autowired
+    public ChangeClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                        ClientHttpRequestFactory requestFactory) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+    }
+
+    public ResponseEntity<Object> getChanges(Long userId, Long since) {
+
+        Map<String, Object> parameters = Map.of(
+                "since", since
+        );
+
+        return get("?since={since}", userId, parameters);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@RequestMapping(path = "/changes")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ChangeController {
+
+    private final ChangeClient changeClient;
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @GetMapping
+    public ResponseEntity<Object> getChanges(@RequestHeader(USER_ID) Long userId,
+                                             @RequestParam(name = "since", defaultValue = "0") @PositiveOrZero Long since) {
+
+        log.info("GET-запрос: '/changes' на получение изменений после токена {} пользователем с id={}", since, userId);
+
+        return changeClient.getChanges(userId, since);
+    }
+}
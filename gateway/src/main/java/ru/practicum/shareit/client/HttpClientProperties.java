@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    // Сколько раз повторить идемпотентный запрос или POST с ключом идемпотентности после таймаута.
+    private int retries = 1;
+
+    private int eventsMaxTotal = 500;
+
+    // Должен быть больше периода heartbeat на сервере (shareit.events.heartbeat).
+    private Duration eventsReadTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.protocol.HttpContext;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.Set;
+
+// Повторяет запрос после сетевой ошибки или таймаута, только если повтор безопасен: метод идемпотентен
+// или запрос несёт ключ идемпотентности, по которому сервер вернёт уже сохранённый ответ.
+public class IdempotentRetryHandler implements HttpRequestRetryHandler {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    private final int retries;
+
+    public IdempotentRetryHandler(int retries) {
+        this.retries = retries;
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+
+        // Исчерпанный пул повтором не лечится, а лишь добавляет очередь ожидающих.
+        if (executionCount > retries || exception instanceof ConnectionPoolTimeoutException
+                || exception instanceof UnknownHostException || exception instanceof SSLException) {
+            return false;
+        }
+        HttpRequest request = HttpClientContext.adapt(context).getRequest();
+        return IDEMPOTENT_METHODS.contains(request.getRequestLine().getMethod())
+                || request.containsHeader(BaseClient.IDEMPOTENCY_KEY);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Выгрузки и потоки событий занимают поток на всё время ответа. Общий applicationTaskExecutor
+// (8 потоков и неограниченная очередь) держал бы остальные потоки в очереди с уже открытым соединением
+// к серверу, поэтому у них свой пул по числу соединений, через которые они могут идти.
+// В режиме виртуальных потоков applicationTaskExecutor и так создаёт поток на задачу.
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "platform", matchIfMissing = true)
+public class StreamExecutorConfig implements WebMvcConfigurer {
+
+    private final HttpClientProperties properties;
+
+    @Bean
+    public ThreadPoolTaskExecutor shareItStreamExecutor() {
+        return streamExecutor(properties.getEventsMaxTotal() + properties.getMaxTotal());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(shareItStreamExecutor());
+    }
+
+    static ThreadPoolTaskExecutor streamExecutor(int maxStreams) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("shareit-stream-");
+        executor.setCorePoolSize(Math.min(8, maxStreams));
+        executor.setMaxPoolSize(maxStreams);
+        // Без очереди: пока есть свободное соединение к серверу, поток выдаётся сразу.
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        return executor;
+    }
+}
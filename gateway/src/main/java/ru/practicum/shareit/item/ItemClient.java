@@ -4,13 +4,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,28 +21,29 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemShortDto item) {
+    public ResponseEntity<Object> createItem(Long userId, ItemShortDto item, String idempotencyKey) {
 
-        return post("", userId, item);
+        return postIdempotent("", userId, item, idempotencyKey);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemShortDto item) {
+    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemShortDto item, String ifMatch) {
 
-        return patch("/" + itemId, userId, item);
+        return patchIfMatch("/" + itemId, userId, null, item, ifMatch);
     }
 
-    public ResponseEntity<Object> getItem(Long itemId, Long userId) {
+    public ResponseEntity<Object> getItem(Long itemId, Long userId, String ifNoneMatch) {
 
-        return get("/" + itemId, userId);
+        return getIfNoneMatch("/" + itemId, userId, ifNoneMatch);
     }
 
     public ResponseEntity<Object> getItemsByUser(Long userId, Integer from, Integer size) {
@@ -52,6 +55,15 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getItemsByUser(Long userId, String after, Integer size) {
+
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+        return get("?after={after}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> searchItems(String text, Integer from, Integer size) {
 
         Map<String, Object> parameters = Map.of(
@@ -62,9 +74,28 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long itemId, Long userId, CommentShortDto comment) {
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/" + itemId + "/availability");
+        String separator = "?";
+
+        if (from != null) {
+            parameters.put("from", from);
+            path.append(separator).append("from={from}");
+            separator = "&";
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            path.append(separator).append("to={to}");
+        }
+        return get(path.toString(), userId, parameters);
+    }
+
+    public ResponseEntity<Object> createComment(Long itemId, Long userId, CommentShortDto comment,
+                                                String idempotencyKey) {
 
-        return post("/" + itemId + "/comment", userId, comment);
+        return postIdempotent("/" + itemId + "/comment", userId, comment, idempotencyKey);
     }
 
 }
@@ -2,10 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulk.ImportClient;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.marker.Create;
@@ -14,6 +19,9 @@ import ru.practicum.shareit.marker.Update;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @Controller
@@ -25,46 +33,81 @@ public class ItemController {
 
     private final ItemClient itemClient;
 
+    private final ImportClient importClient;
+
     private static final String USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader(USER_ID) Long userId,
-                                             @Validated(Create.class) @RequestBody ItemShortDto item) {
+                                             @Validated(Create.class) @RequestBody ItemShortDto item,
+                                             @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                             @Size(max = 255) String idempotencyKey) {
 
         log.info("POST-запрос: '/items' на создание вещи владельцем с id={}", userId);
 
-        return itemClient.createItem(userId, item);
+        return itemClient.createItem(userId, item, idempotencyKey);
+    }
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_ID) Long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) {
+
+        log.info("POST-запрос: '/items/import' на импорт вещей владельцем с id={}", userId);
+
+        return importClient.importRows("/items/import", userId, contentType, body, ItemShortDto.class);
     }
 
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID) Long userId,
                                              @PathVariable Long itemId,
-                                             @Validated(Update.class) @RequestBody ItemShortDto item) {
+                                             @Validated(Update.class) @RequestBody ItemShortDto item,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                     required = false) String ifMatch) {
 
         log.info("PATCH-запрос: '/items/{itemId}' на обновление вещи с id={}", itemId);
 
-        return itemClient.updateItem(userId, itemId, item);
+        return itemClient.updateItem(userId, itemId, item, ifMatch);
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItem(@RequestHeader(USER_ID) Long userId,
-                                          @PathVariable Long itemId) {
+                                          @PathVariable Long itemId,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                  required = false) String ifNoneMatch) {
 
         log.info("GET-запрос: '/items/{itemId}' на получение вещи с id={}", itemId);
 
-        return itemClient.getItem(itemId, userId);
+        return itemClient.getItem(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
     public ResponseEntity<Object> getItemsByUser(@RequestHeader(USER_ID) Long userId,
                                                  @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                 @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/items' на получение всех вещей владельца с id={}", userId);
 
+        if (after != null) {
+            return itemClient.getItemsByUser(userId, after, size);
+        }
         return itemClient.getItemsByUser(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader(USER_ID) Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam(name = "from", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(name = "to", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("GET-запрос: '/items/{itemId}/availability' на получение свободных окон вещи с id={}", itemId);
+
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@RequestParam String text,
                                               @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
@@ -83,12 +126,14 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> createComment(@PathVariable Long itemId,
                                                 @RequestHeader(USER_ID) Long userId,
-                                                @Valid @RequestBody CommentShortDto comment) {
+                                                @Valid @RequestBody CommentShortDto comment,
+                                                @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                                @Size(max = 255) String idempotencyKey) {
 
         log.info("POST-запрос: '/{itemId}/comment' на создание комментария" +
                 " пользователем с id={} для вещи с id={}, текст комментария:{}", userId, itemId, comment);
 
-        return itemClient.createComment(itemId, userId, comment);
+        return itemClient.createComment(itemId, userId, comment, idempotencyKey);
     }
 
 }
@@ -4,7 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
@@ -18,18 +18,19 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
+    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto, String idempotencyKey) {
 
-        return post("", userId, requestDto);
+        return postIdempotent("", userId, requestDto, idempotencyKey);
     }
 
     public ResponseEntity<Object> getRequestsByOwner(Long userId, Integer from, Integer size) {
@@ -42,6 +43,16 @@ public class RequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getRequestsByOwner(Long userId, String after, Integer size) {
+
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+
+        return get("?after={after}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
 
         Map<String, Object> parameters = Map.of(
@@ -52,6 +63,16 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getAllRequests(Long userId, String after, Integer size) {
+
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "size", size
+        );
+
+        return get("/all?after={after}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getRequestsById(Long userId, Long requestId) {
 
         return get("/" + requestId, userId);
@@ -6,11 +6,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
 @Controller
 @RequestMapping(path = "/requests")
@@ -25,31 +27,41 @@ public class RequestController {
 
     @PostMapping
     public ResponseEntity<Object> createItemRequest(@RequestHeader(USER_ID) Long userId,
-                                                    @Valid @RequestBody ItemRequestDto requestDto) {
+                                                    @Valid @RequestBody ItemRequestDto requestDto,
+                                                    @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false)
+                                                    @Size(max = 255) String idempotencyKey) {
 
         log.info("POST-запрос: '/requests' на создание запроса пользователем с id={}", userId);
 
-        return requestClient.createRequest(userId, requestDto);
+        return requestClient.createRequest(userId, requestDto, idempotencyKey);
     }
 
     @GetMapping
     public ResponseEntity<Object> getRequests(@RequestHeader(USER_ID) Long userId,
                                               @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                              @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+                                              @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                              @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/requests' на получение запросов пользователем с id={}", userId);
 
+        if (after != null) {
+            return requestClient.getRequestsByOwner(userId, after, size);
+        }
         return requestClient.getRequestsByOwner(userId, from, size);
     }
 
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID) Long userId,
                                                  @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                 @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/requests/all' на получение всех запросов " +
                 "пользователем с id={} по {} запросов на странице", userId, size);
 
+        if (after != null) {
+            return requestClient.getAllRequests(userId, after, size);
+        }
         return requestClient.getAllRequests(userId, from, size);
     }
 
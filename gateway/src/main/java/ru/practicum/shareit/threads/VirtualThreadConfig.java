@@ -0,0 +1,45 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shareItVirtualExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("shareit-vt-").orElseGet(() -> {
+            log.warn("Виртуальные потоки недоступны в Java {}, фоновые задачи выполняются в потоках платформы",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        });
+    }
+
+    @Bean
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService shareItVirtualExecutor) {
+        return new TaskExecutorAdapter(shareItVirtualExecutor);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService shareItVirtualExecutor) {
+        return protocolHandler -> {
+            if (VirtualThreads.isAvailable()) {
+                protocolHandler.setExecutor(shareItVirtualExecutor);
+            } else {
+                log.warn("Виртуальные потоки недоступны в Java {}, Tomcat использует пул потоков платформы",
+                        Runtime.version().feature());
+            }
+        };
+    }
+}
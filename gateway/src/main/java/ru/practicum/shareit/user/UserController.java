@@ -2,14 +2,19 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulk.ImportClient;
 import ru.practicum.shareit.marker.Create;
 import ru.practicum.shareit.marker.Update;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.InputStream;
+
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -19,6 +24,8 @@ public class UserController {
 
     private final UserClient userClient;
 
+    private final ImportClient importClient;
+
     @PostMapping
     public ResponseEntity<Object> createUser(@Validated(Create.class)
                                              @RequestBody UserDto user) {
@@ -28,6 +35,15 @@ public class UserController {
         return userClient.createUser(user);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<Object> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) {
+
+        log.info("POST-запрос: '/users/import' на импорт пользователей");
+
+        return importClient.importRows("/users/import", null, contentType, body, UserDto.class);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@PathVariable Long userId,
                                              @Validated(Update.class)
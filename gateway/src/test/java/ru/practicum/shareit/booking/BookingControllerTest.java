@@ -14,11 +14,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -69,4 +72,18 @@ public class BookingControllerTest {
         verifyNoInteractions(bookingClient);
     }
 
+    @SneakyThrows
+    @Test
+    void approveBookings_whenNullBookingId_thenReturnBadRequest() {
+
+        BookingBatchRequest batchRequest = new BookingBatchRequest(Arrays.asList(1L, null), true);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(batchRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, "1"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingClient);
+    }
+
 }
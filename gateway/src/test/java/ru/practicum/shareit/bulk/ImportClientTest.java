@@ -0,0 +1,134 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ImportClientTest {
+
+    private MockRestServiceServer server;
+    private ImportClient client;
+
+    @BeforeEach
+    void startUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        client = new ImportClient("http://localhost:9090", new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 10);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void importRows_whenNdjsonWithInvalidRows_thenOnlyValidRowsSentAndReportsMerged() {
+        server.expect(requestTo("http://localhost:9090/items/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":null,\"name\":\"drill\",\"description\":\"drill\",\"available\":true,"
+                                + "\"requestId\":null,\"row\":1}\n"
+                                + "{\"id\":null,\"name\":\"saw\",\"description\":\"saw\",\"available\":true,"
+                                + "\"requestId\":5,\"row\":4}\n"))
+                .andRespond(withSuccess("{\"total\":2,\"imported\":1,\"failed\":1,"
+                        + "\"errors\":[{\"row\":4,\"message\":\"Запрос с id 5 не существует\"}]}",
+                        MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.importRows("/items/import", 1L, MediaType.APPLICATION_NDJSON,
+                body("{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}",
+                        "{\"name\":\"\",\"description\":\"empty\",\"available\":true}",
+                        "{\"name\":",
+                        "{\"name\":\"saw\",\"description\":\"saw\",\"available\":true,\"requestId\":5}"),
+                ItemShortDto.class);
+
+        ImportReport report = (ImportReport) response.getBody();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4, report.getTotal());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2L, 3L, 4L), rows(report));
+        assertEquals("name: Имя не может быть пустым", report.getErrors().get(0).getMessage());
+        server.verify();
+    }
+
+    @Test
+    void importRows_whenCsv_thenRowsConvertedToNdjson() {
+        server.expect(requestTo("http://localhost:9090/users/import"))
+                .andExpect(content().string("{\"id\":null,\"name\":\"first\",\"email\":\"first@mail.ru\",\"row\":1}\n"))
+                .andRespond(withSuccess("{\"total\":1,\"imported\":1,\"failed\":0,\"errors\":[]}",
+                        MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.importRows("/users/import", null, ImportRows.TEXT_CSV,
+                body("name,email", "first,first@mail.ru", "second,not-an-email"), UserDto.class);
+
+        ImportReport report = (ImportReport) response.getBody();
+        assertEquals(2, report.getTotal());
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(2L), rows(report));
+        server.verify();
+    }
+
+    @Test
+    void importRows_whenServerReturnsError_thenErrorPassedThrough() {
+        String error = "{\"error\":\"Пользователь с id 99 не существует\"}";
+        server.expect(requestTo("http://localhost:9090/items/import"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.importRows("/items/import", 99L, MediaType.APPLICATION_NDJSON,
+                body("{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}"), ItemShortDto.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void merge_whenErrorsExceedLimit_thenSortedAndTruncated() {
+        ImportReport gateway = new ImportReport(2);
+        gateway.setTotal(5);
+        gateway.rejected(1, "gateway");
+        gateway.rejected(4, "gateway");
+        ImportReport fromServer = new ImportReport();
+        fromServer.setImported(2);
+        fromServer.rejected(2, "server");
+
+        ImportReport merged = gateway.merge(fromServer);
+
+        assertEquals(5, merged.getTotal());
+        assertEquals(2, merged.getImported());
+        assertEquals(3, merged.getFailed());
+        assertEquals(List.of(1L, 2L), rows(merged));
+        assertTrue(merged.isErrorsTruncated());
+    }
+
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Long> rows(ImportReport report) {
+        return report.getErrors().stream().map(ImportError::getRow).collect(Collectors.toList());
+    }
+}
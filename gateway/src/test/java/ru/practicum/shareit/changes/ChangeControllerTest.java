@@ -0,0 +1,66 @@
+package ru.practicum.shareit.changes;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeControllerTest {
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Mock
+    private ChangeClient changeClient;
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void startUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(changeController)
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void getChanges_whenSinceGiven_thenProxiedToServer() {
+
+        when(changeClient.getChanges(1L, 100L)).thenReturn(ResponseEntity.ok(Map.of("token", 151)));
+
+        mockMvc.perform(get("/changes")
+                        .param("since", "100")
+                        .header(USER_ID, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(151));
+    }
+
+    @SneakyThrows
+    @Test
+    void getChanges_whenNoSince_thenFullSyncRequested() {
+
+        when(changeClient.getChanges(1L, 0L)).thenReturn(ResponseEntity.ok(Map.of("token", 0)));
+
+        mockMvc.perform(get("/changes")
+                        .header(USER_ID, "1"))
+                .andExpect(status().isOk());
+        verify(changeClient).getChanges(1L, 0L);
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String BODY = "[{\"id\":1,\"name\":\"Дрель\"}]";
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void startUp() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+    }
+
+    @Test
+    void get_whenServerResponds_thenBodyAndHeadersPassedThrough() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "abc");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("/items"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/items", 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void get_whenServerReturnsError_thenStatusAndBodyPassedThrough() {
+        String error = "{\"error\":\"Вещь с id 99 не существует\"}";
+        server.expect(requestTo("/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.get("/items/99", 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        server.verify();
+    }
+
+    @Test
+    void getIfNoneMatch_whenServerRespondsNotModified_thenStatusAndETagPassedThrough() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"3-1f\"");
+        server.expect(requestTo("/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"3-1f\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        ResponseEntity<Object> response = client.getIfNoneMatch("/items/1", 1L, "\"3-1f\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3-1f\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void patchIfMatch_whenServerRejectsStaleVersion_thenPreconditionFailedPassedThrough() {
+        String error = "{\"error\":\"Ресурс изменён\"}";
+        server.expect(requestTo("/bookings/1?approved=true"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andExpect(header(HttpHeaders.IF_MATCH, "\"2-0\""))
+                .andRespond(withStatus(HttpStatus.PRECONDITION_FAILED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        ResponseEntity<Object> response = client.patchIfMatch("/bookings/1?approved={approved}", 1L,
+                Map.of("approved", true), null, "\"2-0\"");
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void postIdempotent_whenKeyGiven_thenForwarded() {
+        server.expect(requestTo("/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(BaseClient.IDEMPOTENCY_KEY, "key-1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.postIdempotent("/bookings", 1L, Map.of("itemId", 1), "key-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void postIdempotent_whenNoKey_thenGeneratedPerCall() {
+        List<String> keys = new ArrayList<>();
+        server.expect(ExpectedCount.twice(), requestTo("/bookings"))
+                .andExpect(request -> keys.add(request.getHeaders().getFirst(BaseClient.IDEMPOTENCY_KEY)))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        client.postIdempotent("/bookings", 1L, Map.of("itemId", 1), null);
+        client.postIdempotent("/bookings", 1L, Map.of("itemId", 1), null);
+
+        assertEquals(2, keys.size());
+        assertNotNull(keys.get(0));
+        assertNotEquals(keys.get(0), keys.get(1));
+        server.verify();
+    }
+
+    @Test
+    void stream_whenServerResponds_thenBodyCopiedWithStatusAndHeaders() throws Exception {
+        String ndjson = "{\"id\":1}\n{\"id\":2}\n";
+        server.expect(requestTo("/bookings/owner/export"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-ndjson, application/json"))
+                .andRespond(withSuccess(ndjson, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/bookings/owner/export", 1L,
+                MediaType.APPLICATION_NDJSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(ndjson, out.toString(StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void stream_whenServerReturnsError_thenStatusPassedThrough() throws Exception {
+        String error = "{\"error\":\"Пользователь с id 99 не существует\"}";
+        server.expect(requestTo("/bookings/owner/export"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/bookings/owner/export", 99L,
+                MediaType.APPLICATION_NDJSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void stream_whenEventStream_thenChunksFlushedAsTheyArrive() throws Exception {
+        String events = "id:10\nevent:BOOKING_APPROVED\ndata:{\"id\":5}\n\n";
+        server.expect(requestTo("/bookings/events"))
+                .andExpect(header(HttpHeaders.ACCEPT, "text/event-stream, application/json"))
+                .andRespond(withSuccess(events, MediaType.TEXT_EVENT_STREAM));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/bookings/events", 1L,
+                MediaType.TEXT_EVENT_STREAM);
+        List<String> flushed = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushed.add(toString(StandardCharsets.UTF_8));
+            }
+        };
+        response.getBody().writeTo(out);
+
+        assertEquals(MediaType.TEXT_EVENT_STREAM, response.getHeaders().getContentType());
+        assertEquals(List.of(events), flushed);
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+    }
+}
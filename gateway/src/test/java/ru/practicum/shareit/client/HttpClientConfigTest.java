@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private HttpClientProperties properties;
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void startUp() {
+        properties = new HttpClientProperties();
+        properties.setMaxTotal(50);
+        properties.setMaxPerRoute(20);
+        properties.setKeepAlive(Duration.ofSeconds(5));
+        connectionManager = config.shareItConnectionManager(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    void shareItConnectionManager_whenConfigured_thenLimitsApplied() {
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void shareItConnectionPoolMetrics_whenBound_thenGaugesReportPoolStats() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.shareItConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertEquals(0, registry.get("shareit.http.pool.leased").gauge().value());
+        assertEquals(0, registry.get("shareit.http.pool.pending").gauge().value());
+        assertEquals(0, registry.get("shareit.http.pool.available").gauge().value());
+        assertEquals(50, registry.get("shareit.http.pool.max").gauge().value());
+    }
+}
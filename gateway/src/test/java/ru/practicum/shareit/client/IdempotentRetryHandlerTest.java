@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.HttpCoreContext;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotentRetryHandlerTest {
+
+    private final IdempotentRetryHandler handler = new IdempotentRetryHandler(1);
+
+    @Test
+    void retryRequest_whenGetTimedOut_thenRetriedOnce() {
+        HttpClientContext context = context(new BasicHttpRequest("GET", "/items/1"));
+
+        assertTrue(handler.retryRequest(new SocketTimeoutException(), 1, context));
+        assertFalse(handler.retryRequest(new SocketTimeoutException(), 2, context));
+    }
+
+    @Test
+    void retryRequest_whenPostWithoutKey_thenNotRetried() {
+        HttpClientContext context = context(new BasicHttpRequest("POST", "/bookings"));
+
+        assertFalse(handler.retryRequest(new SocketTimeoutException(), 1, context));
+    }
+
+    @Test
+    void retryRequest_whenPostWithKey_thenRetried() {
+        BasicHttpRequest request = new BasicHttpRequest("POST", "/bookings");
+        request.setHeader(BaseClient.IDEMPOTENCY_KEY, "key-1");
+
+        assertTrue(handler.retryRequest(new SocketTimeoutException(), 1, context(request)));
+    }
+
+    @Test
+    void retryRequest_whenPoolExhausted_thenNotRetried() {
+        HttpClientContext context = context(new BasicHttpRequest("GET", "/items/1"));
+
+        assertFalse(handler.retryRequest(new ConnectionPoolTimeoutException(), 1, context));
+    }
+
+    private static HttpClientContext context(BasicHttpRequest request) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpCoreContext.HTTP_REQUEST, request);
+        return context;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingEventClient;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StreamExecutorConfigTest {
+
+    private static final int SUBSCRIBERS = 20;
+
+    private static final String EVENT = "id:1\nevent:BOOKING_CREATED\ndata:{}\n\n";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ThreadPoolTaskExecutor shareItStreamExecutor;
+
+    @MockBean
+    private BookingEventClient bookingEventClient;
+
+    @Test
+    void streamBookingEvents_whenMoreSubscribersThanDefaultPool_thenAllServedAtOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StreamingResponseBody stream = out -> {
+            out.write(EVENT.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        when(bookingEventClient.streamEvents(anyLong())).thenAnswer(invocation -> ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(stream));
+
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService subscribers = Executors.newFixedThreadPool(SUBSCRIBERS);
+        CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+        List<String> firstEvents = new ArrayList<>();
+        try {
+            for (int i = 1; i <= SUBSCRIBERS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/events"))
+                        .header("X-Sharer-User-Id", String.valueOf(i))
+                        .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                        .build();
+                subscribers.submit(() -> {
+                    try (InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+                        String event = new String(body.readNBytes(EVENT.length()), StandardCharsets.UTF_8);
+                        synchronized (firstEvents) {
+                            firstEvents.add(event);
+                        }
+                        received.countDown();
+                    }
+                    return null;
+                });
+            }
+
+            assertTrue(received.await(10, TimeUnit.SECONDS), "Не все подписчики получили первое событие");
+            assertEquals(SUBSCRIBERS, firstEvents.stream().filter(EVENT::equals).count());
+            assertTrue(shareItStreamExecutor.getActiveCount() >= SUBSCRIBERS);
+        } finally {
+            release.countDown();
+            subscribers.shutdownNow();
+        }
+    }
+
+    @Test
+    void streamExecutor_whenCreated_thenSizedToStreamConnectionsWithoutQueue() {
+        ThreadPoolTaskExecutor executor = StreamExecutorConfig.streamExecutor(700);
+        executor.initialize();
+        try {
+            assertEquals(700, executor.getMaxPoolSize());
+            assertEquals(0, executor.getThreadPoolExecutor().getQueue().remainingCapacity());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
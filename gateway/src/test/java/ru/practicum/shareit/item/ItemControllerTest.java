@@ -15,7 +15,12 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -162,4 +167,29 @@ public class ItemControllerTest {
         verifyNoInteractions(itemClient);
     }
 
+    @SneakyThrows
+    @Test
+    void getAvailability_whenPeriodGiven_thenRequestForwarded() {
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00")
+                        .header(USER_ID, "1"))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).getAvailability(1L, 1L, LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenInvalidDate_thenReturnBadRequest() {
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "tomorrow")
+                        .header(USER_ID, "1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
 }
@@ -0,0 +1,326 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.exception.BookingException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCalendar {
+
+    static final List<BookingStatus> ACTIVE = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Ranges> calendars = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] locks = createLocks();
+
+    public void reserve(Booking booking) {
+
+        Long itemId = booking.getItem().getId();
+        long start = toMillis(booking.getStart());
+        long end = toMillis(booking.getEnd());
+        ReentrantLock lock = lockFor(itemId);
+
+        lock.lock();
+        try {
+            Ranges ranges = load(itemId);
+            ranges.removeEndedBefore(now());
+            ranges.remove(booking.getId());
+            if (ranges.overlaps(start, end)) {
+                throw new BookingException(String.format(
+                        "Вещь с id %d уже забронирована на период с %s по %s",
+                        itemId, booking.getStart(), booking.getEnd()));
+            }
+            ranges.add(booking.getId(), start, end);
+        } finally {
+            lock.unlock();
+        }
+
+        afterCompletion(itemId, booking.getId(), false);
+    }
+
+    public void release(Booking booking) {
+
+        release(booking.getItem().getId(), booking.getId());
+    }
+
+    public void release(Long itemId, Long bookingId) {
+
+        afterCompletion(itemId, bookingId, true);
+    }
+
+    public List<FreeWindowDto> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        if (!from.isBefore(to)) {
+            throw new BookingException("Начало периода должно быть раньше его окончания");
+        }
+
+        long cursor = toMillis(from);
+        long limit = toMillis(to);
+        List<FreeWindowDto> windows = new ArrayList<>();
+        ReentrantLock lock = lockFor(itemId);
+
+        lock.lock();
+        try {
+            Ranges ranges = load(itemId);
+            ranges.removeEndedBefore(now());
+            for (int i = ranges.firstEndingAfter(cursor); i < ranges.size && ranges.starts[i] < limit; i++) {
+                if (ranges.starts[i] > cursor) {
+                    windows.add(new FreeWindowDto(toDateTime(cursor), toDateTime(ranges.starts[i])));
+                }
+                cursor = Math.max(cursor, ranges.ends[i]);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (cursor < limit) {
+            windows.add(new FreeWindowDto(toDateTime(cursor), to));
+        }
+        return windows;
+    }
+
+    // Прошедшие бронирования вычищаются при каждом обращении к вещи, а календари вещей,
+    // в которых ничего не осталось, периодически выгружаются: иначе карта растёт всё время жизни процесса.
+    @Scheduled(initialDelayString = "${shareit.booking.calendar.sweep:PT10M}",
+            fixedDelayString = "${shareit.booking.calendar.sweep:PT10M}")
+    public void evictIdle() {
+
+        long now = now();
+        int evicted = 0;
+
+        for (Long itemId : calendars.keySet()) {
+            ReentrantLock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                Ranges ranges = calendars.get(itemId);
+                if (ranges != null) {
+                    ranges.removeEndedBefore(now);
+                    if (ranges.size == 0) {
+                        calendars.remove(itemId);
+                        evicted++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.info("Выгружено календарей вещей без актуальных бронирований: {}", evicted);
+        }
+    }
+
+    int calendarCount() {
+
+        return calendars.size();
+    }
+
+    private Ranges load(Long itemId) {
+
+        return calendars.computeIfAbsent(itemId, id -> {
+            Ranges ranges = new Ranges();
+            for (Booking booking : bookingRepository.findAllByItemIdAndStatusInAndEndAfter(id, ACTIVE,
+                    LocalDateTime.now())) {
+                ranges.add(booking.getId(), toMillis(booking.getStart()), toMillis(booking.getEnd()));
+            }
+            log.info("Загружен календарь вещи с id {}: {} бронирований", id, ranges.size);
+            return ranges;
+        });
+    }
+
+    private void afterCompletion(Long itemId, Long bookingId, boolean onCommit) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                remove(itemId, bookingId);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    remove(itemId, bookingId);
+                }
+            }
+        });
+    }
+
+    private void remove(Long itemId, Long bookingId) {
+
+        ReentrantLock lock = lockFor(itemId);
+
+        lock.lock();
+        try {
+            Ranges ranges = calendars.get(itemId);
+            if (ranges != null) {
+                ranges.remove(bookingId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+
+        return locks[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static long now() {
+
+        return toMillis(LocalDateTime.now());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static class Ranges {
+
+        private long[] ids = new long[4];
+
+        private long[] starts = new long[4];
+
+        private long[] ends = new long[4];
+
+        private long[] maxEnds = new long[4];
+
+        private int size;
+
+        boolean overlaps(long start, long end) {
+
+            int last = lastStartingBefore(end);
+
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        int firstEndingAfter(long time) {
+
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (maxEnds[middle] > time) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        void add(long id, long start, long end) {
+
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnds = Arrays.copyOf(maxEnds, capacity);
+            }
+
+            int position = lastStartingBefore(start + 1) + 1;
+
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(starts, position, starts, position + 1, size - position);
+            System.arraycopy(ends, position, ends, position + 1, size - position);
+            ids[position] = id;
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+            updateMaxEnds(position);
+        }
+
+        void remove(long id) {
+
+            for (int position = 0; position < size; position++) {
+                if (ids[position] == id) {
+                    System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                    System.arraycopy(starts, position + 1, starts, position, size - position - 1);
+                    System.arraycopy(ends, position + 1, ends, position, size - position - 1);
+                    size--;
+                    updateMaxEnds(position);
+                    return;
+                }
+            }
+        }
+
+        void removeEndedBefore(long time) {
+
+            int kept = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (ends[i] > time) {
+                    ids[kept] = ids[i];
+                    starts[kept] = starts[i];
+                    ends[kept] = ends[i];
+                    kept++;
+                }
+            }
+            if (kept < size) {
+                size = kept;
+                updateMaxEnds(0);
+            }
+        }
+
+        private int lastStartingBefore(long time) {
+
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low - 1;
+        }
+
+        private void updateMaxEnds(int from) {
+
+            for (int i = from; i < size; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+    }
+}
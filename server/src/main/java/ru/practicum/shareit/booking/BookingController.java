@@ -2,10 +2,21 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.conditional.ETags;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -18,56 +29,121 @@ public class BookingController {
 
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
+    private final BookingEventRegistry bookingEventRegistry;
+    private final IdempotencyStore idempotencyStore;
 
 
     @PostMapping
-    public BookingDtoResponse createBooking(@RequestHeader(USER_HEADER) Long userId,
-                                            @RequestBody BookingDtoRequest bookingDto) {
+    public ResponseEntity<Object> createBooking(@RequestHeader(USER_HEADER) Long userId,
+                                                @RequestBody BookingDtoRequest bookingDto,
+                                                @RequestHeader(value = IdempotencyStore.HEADER,
+                                                        required = false) String idempotencyKey) {
 
         log.info("POST-запрос '/bookings' на создание запроса на бронирование: {} пользователем с id: {}",
                 bookingDto, userId);
 
-        return bookingService.createBooking(userId, bookingDto);
+        return idempotencyStore.execute(userId, idempotencyKey, "POST /bookings", bookingDto,
+                () -> bookingService.createBooking(userId, bookingDto));
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingDtoResponse approvedBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId,
-                                              @RequestParam Boolean approved) {
+    public ResponseEntity<BookingDtoResponse> approvedBooking(@RequestHeader(USER_HEADER) Long userId,
+                                                              @PathVariable Long bookingId,
+                                                              @RequestParam Boolean approved,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                      required = false) String ifMatch) {
 
         log.info("PATCH-запрос '/bookings/{bookingId}' " +
                 "на подтверждение/отклонение бронирования: {} пользователем с id: {}", bookingId, userId);
-        return bookingService.approveBooking(userId, bookingId, approved);
+        return ETags.toResponse(bookingService.approveBooking(userId, bookingId, approved, ETags.version(ifMatch)));
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResult> approveBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                    @RequestBody BookingBatchRequest batchRequest) {
+
+        log.info("PATCH-запрос '/bookings/batch' на подтверждение/отклонение бронирований: {} пользователем с id: {}",
+                batchRequest, userId);
+        return bookingService.approveBookings(userId, batchRequest);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDtoResponse getBookingById(@RequestHeader(USER_HEADER) Long userId,
-                                             @PathVariable Long bookingId) {
+    public ResponseEntity<BookingDtoResponse> getBookingById(@RequestHeader(USER_HEADER) Long userId,
+                                                             @PathVariable Long bookingId,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                     required = false) String ifNoneMatch) {
 
         log.info("GET-запрос '/bookings/{bookingId}' на получение данных " +
                 "о бронировании с bookingId: {} пользователем с id: {}", bookingId, userId);
 
-        return bookingService.getBookingById(userId, bookingId);
+        return ETags.toResponse(bookingService.getBookingById(userId, bookingId), ifNoneMatch);
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getSortBookingByUser(@RequestHeader(USER_HEADER) Long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getSortBookingByUser(@RequestHeader(USER_HEADER) Long userId,
                                                          @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                          @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                         @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                         @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос '/bookings' бронирований пользователя с id:{}, state:{}", userId, state);
 
-        return bookingService.getSortBookingByUser(userId, state, from, size);
+        List<BookingDtoResponse> bookings = after == null
+                ? bookingService.getSortBookingByUser(userId, state, from, size)
+                : bookingService.getSortBookingByUser(userId, state, PageCursor.decode(after), size);
+
+        return PageCursor.toResponse(bookings, size, b -> PageCursor.of(b.getStart(), b.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getSortBookingByOwner(@RequestHeader(USER_HEADER) Long userId,
+    public ResponseEntity<List<BookingDtoResponse>> getSortBookingByOwner(@RequestHeader(USER_HEADER) Long userId,
                                                           @RequestParam(name = "state", defaultValue = "ALL") String state,
                                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                          @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                          @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                          @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос '/bookings/owner' ownerID:{}, state:{},", userId, state);
 
-        return bookingService.getSortBookingByOwner(userId, state, from, size);
+        List<BookingDtoResponse> bookings = after == null
+                ? bookingService.getSortBookingByOwner(userId, state, from, size)
+                : bookingService.getSortBookingByOwner(userId, state, PageCursor.decode(after), size);
+
+        return PageCursor.toResponse(bookings, size, b -> PageCursor.of(b.getStart(), b.getId()));
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getBookingSummaryByUser(@RequestHeader(USER_HEADER) Long userId) {
+
+        log.info("GET-запрос '/bookings/summary' на получение счётчиков бронирований пользователя с id:{}", userId);
+
+        return bookingService.getBookingSummaryByUser(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingSummaryByOwner(@RequestHeader(USER_HEADER) Long userId) {
+
+        log.info("GET-запрос '/bookings/owner/summary' на получение счётчиков бронирований владельца с id:{}", userId);
+
+        return bookingService.getBookingSummaryByOwner(userId);
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(USER_HEADER) Long userId) {
+
+        log.info("GET-запрос '/bookings/owner/export' на выгрузку всех бронирований владельца с id:{}", userId);
+
+        bookingExporter.checkOwner(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingExporter.exportByOwner(userId, out));
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBookingEvents(@RequestHeader(USER_HEADER) Long userId) {
+
+        log.info("GET-запрос '/bookings/events' на подписку на события бронирований пользователем с id:{}", userId);
+
+        return bookingEventRegistry.subscribe(userId);
     }
 }
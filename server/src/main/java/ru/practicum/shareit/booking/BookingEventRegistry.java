@@ -0,0 +1,227 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.InMemoryOutboxBus;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.threads.VirtualThreads;
+import ru.practicum.shareit.validation.IdValidator;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// События приходят из ретранслятора outbox этого же процесса. При нескольких экземплярах сервера строку
+// забирает один из них (SKIP LOCKED), и подписчики остальных её не увидят: рассчитано на один экземпляр,
+// как календарь бронирований и лента изменений. Пропущенное клиент может догнать через /changes.
+@Slf4j
+@Component
+public class BookingEventRegistry {
+
+    private static final OutboxEvent HEARTBEAT = new OutboxEvent();
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    private final IdValidator idValidator;
+
+    private final Executor executor;
+
+    private final long timeout;
+
+    private final int queueCapacity;
+
+    private final Runnable unsubscribe;
+
+    @Autowired
+    public BookingEventRegistry(InMemoryOutboxBus outboxBus, ObjectMapper objectMapper, IdValidator idValidator,
+                                @Value("${shareit.events.timeout:PT30M}") Duration timeout,
+                                @Value("${shareit.events.queue-capacity:256}") int queueCapacity) {
+        this(outboxBus, objectMapper, idValidator, newExecutor(), timeout, queueCapacity);
+    }
+
+    BookingEventRegistry(InMemoryOutboxBus outboxBus, ObjectMapper objectMapper, IdValidator idValidator,
+                         Executor executor, Duration timeout, int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.idValidator = idValidator;
+        this.executor = executor;
+        this.timeout = timeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        this.unsubscribe = outboxBus.subscribe(this::onEvent);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+
+        idValidator.checkUser(userId);
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        log.info("Пользователь с id {} подписался на события бронирований", userId);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Период должен быть меньше таймаута чтения у шлюза, иначе он оборвёт тихий поток.
+    @Scheduled(initialDelayString = "${shareit.events.heartbeat:PT10S}",
+            fixedDelayString = "${shareit.events.heartbeat:PT10S}")
+    public void heartbeat() {
+
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        unsubscribe.run();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void onEvent(OutboxEvent event) {
+
+        if (!OutboxEvent.BOOKING.equals(event.getAggregateType())) {
+            return;
+        }
+        JsonNode booking;
+        try {
+            booking = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            log.warn("Событие {} не разобрано: {}", event.getId(), e.getOriginalMessage());
+            return;
+        }
+        Long bookerId = booking.path("bookerId").asLong();
+        Long ownerId = booking.path("ownerId").asLong();
+        deliver(bookerId, event);
+        if (!Objects.equals(bookerId, ownerId)) {
+            deliver(ownerId, event);
+        }
+    }
+
+    private void deliver(Long userId, OutboxEvent event) {
+
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static Executor newExecutor() {
+
+        AtomicInteger counter = new AtomicInteger();
+        return VirtualThreads.newThreadPerTaskExecutor("shareit-events-")
+                .orElseGet(() -> Executors.newCachedThreadPool(task -> {
+                    Thread thread = new Thread(task, "shareit-events-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    // Отправка идёт из своей очереди в отдельном потоке: медленный клиент не задерживает ретранслятор outbox,
+    // а переполнение очереди закрывает соединение, и клиент догоняет пропущенное через /changes.
+    private final class Subscriber {
+
+        private final Long userId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<OutboxEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(OutboxEvent event) {
+
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("Пользователь с id {} не успевает читать события бронирований, поток закрыт", userId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void heartbeat() {
+
+            if (queue.isEmpty()) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        private void drain() {
+
+            do {
+                OutboxEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event == HEARTBEAT
+                                ? SseEmitter.event().comment("heartbeat")
+                                : SseEmitter.event()
+                                .id(String.valueOf(event.getId()))
+                                .name(event.getEventType())
+                                .data(event.getPayload()));
+                    } catch (IOException | IllegalStateException e) {
+                        closed = true;
+                        remove(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+
+            closed = true;
+            queue.clear();
+            remove(this);
+            // complete() ждёт текущей отправки, поэтому вызывается не из потока ретранслятора.
+            executor.execute(emitter::complete);
+        }
+    }
+}
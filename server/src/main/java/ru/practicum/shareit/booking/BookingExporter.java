@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.validation.IdValidator;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class BookingExporter {
+
+    private static final int CLEAR_EVERY = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+
+    private final BookingRepository bookingRepository;
+    private final IdValidator idValidator;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public BookingExporter(BookingRepository bookingRepository, IdValidator idValidator, EntityManager entityManager,
+                           ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.idValidator = idValidator;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(BookingDtoResponse.class);
+    }
+
+    public void checkOwner(Long ownerId) {
+        idValidator.checkUser(ownerId);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportByOwner(Long ownerId, OutputStream out) throws IOException {
+
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(ownerId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                out.write(writer.writeValueAsBytes(BookingMapper.toBookingDtoResponse(booking)));
+                out.write('\n');
+                entityManager.detach(booking);
+                // Вещи и арендаторы из join fetch остаются в контексте, поэтому он очищается целиком раз в выборку.
+                if (++count % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Выгружено {} бронирований владельца с id {}", count, ownerId);
+        return count;
+    }
+}
@@ -4,7 +4,8 @@ package ru.practicum.shareit.booking;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.user.User;
@@ -24,6 +25,30 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingEventDto toBookingEventDto(Booking booking) {
+        return BookingEventDto.builder()
+                .id(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .ownerId(booking.getItem().getOwner().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public BookingEventDto toBookingEventDto(BookingDecisionView decision, Long ownerId, BookingStatus status) {
+        return BookingEventDto.builder()
+                .id(decision.getId())
+                .itemId(decision.getItemId())
+                .bookerId(decision.getBookerId())
+                .ownerId(ownerId)
+                .start(decision.getStart())
+                .end(decision.getEnd())
+                .status(status)
+                .build();
+    }
+
     public Booking toBooking(BookingDtoRequest bookingDto, Item item, User user, BookingStatus status) {
 
         return Booking.builder()
@@ -35,16 +60,16 @@ public class BookingMapper {
                 .build();
     }
 
-    public BookingItemDto toBookingItemDto(Booking booking) {
+    public BookingSummaryDto toBookingSummaryDto(BookingSummaryView summary) {
 
-        if (booking == null) {
-            return null;
-        }
-
-        return BookingItemDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
+        return BookingSummaryDto.builder()
+                .all(summary.getAllCount())
+                .current(summary.getCurrentCount())
+                .past(summary.getPastCount())
+                .future(summary.getFutureCount())
+                .waiting(summary.getWaitingCount())
+                .rejected(summary.getRejectedCount())
                 .build();
     }
 
-}
\ No newline at end of file
+}
@@ -1,33 +1,196 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByItemOwnerId(Long owner, Pageable pageable);
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDtoResponse(" +
+            " b.id, b.start, b.end, i.id, i.name, bk.id, b.status) " +
+            " from Booking b join b.item i join b.booker bk ";
+
+    String BY_BOOKER = BOOKING_DTO + " where b.booker.id = :userId ";
+
+    String BY_OWNER = BOOKING_DTO + " where i.owner.id = :userId ";
+
+    String CURRENT = " and b.start < :now and b.end > :now ";
+
+    String PAST = " and b.end < :now ";
+
+    String FUTURE = " and b.start > :now ";
+
+    String WITH_STATUS = " and b.status = :status ";
+
+    String AFTER_CURSOR = " and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            " order by b.start desc, b.id desc";
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    String CHANGES = " and b.changeSeq > :since and b.changeSeq <= :until order by b.changeSeq";
+
+    // Условия повторяют CURRENT, PAST, FUTURE и WITH_STATUS, чтобы счётчики совпадали со списками по состояниям.
+    String SUMMARY = "select count(*) as allCount, " +
+            " count(*) filter (where b.start_date < :now and b.end_date > :now) as currentCount, " +
+            " count(*) filter (where b.end_date < :now) as pastCount, " +
+            " count(*) filter (where b.start_date > :now) as futureCount, " +
+            " count(*) filter (where b.status = 'WAITING') as waitingCount, " +
+            " count(*) filter (where b.status = 'REJECTED') as rejectedCount " +
+            " from bookings b ";
+
+    @EntityGraph("Booking.detail")
+    Optional<Booking> findDetailById(Long id);
+
+    @Query("select b.id as id, i.id as itemId, b.booker.id as bookerId, b.start as start, b.end as end, " +
+            " b.status as status from Booking b join b.item i " +
+            " where b.id in (:ids) and i.owner.id = :ownerId")
+    List<BookingDecisionView> findDecisionsByIdInAndItemOwnerId(@Param("ids") Collection<Long> ids,
+                                                                @Param("ownerId") Long ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.changeSeq = :changeSeq, b.version = b.version + 1 " +
+            " where b.id in (:ids) and b.status = :expected")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("expected") BookingStatus expected,
+                                    @Param("status") BookingStatus status, @Param("changeSeq") Long changeSeq);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker bk where bk.id = :userId " + CHANGES)
+    List<Booking> findChangesByBookerId(@Param("userId") Long bookerId, @Param("since") long since,
+                                        @Param("until") long until, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :userId " + CHANGES)
+    List<Booking> findChangesByItemOwnerId(@Param("userId") Long ownerId, @Param("since") long since,
+                                           @Param("until") long until, Pageable pageable);
+
+    @Query(value = SUMMARY + " where b.booker_id = :userId", nativeQuery = true)
+    BookingSummaryView countByStateAndBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(value = SUMMARY + " join items i on i.id = b.item_id where i.owner_id = :userId", nativeQuery = true)
+    BookingSummaryView countByStateAndItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now);
+
+    @Query(BY_BOOKER)
+    List<BookingDtoResponse> findAllByBookerId(@Param("userId") Long bookerId, Pageable pageable);
+
+    @Query(BY_BOOKER + CURRENT)
+    List<BookingDtoResponse> findCurrentByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query(BY_BOOKER + PAST)
+    List<BookingDtoResponse> findPastByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Query(BY_BOOKER + FUTURE)
+    List<BookingDtoResponse> findFutureByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    @Query(BY_BOOKER + WITH_STATUS)
+    List<BookingDtoResponse> findAllByBookerIdAndStatus(@Param("userId") Long bookerId,
+                                                        @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(BY_OWNER)
+    List<BookingDtoResponse> findAllByItemOwnerId(@Param("userId") Long owner, Pageable pageable);
+
+    @Query(BY_OWNER + CURRENT)
+    List<BookingDtoResponse> findCurrentByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+                                                      Pageable pageable);
+
+    @Query(BY_OWNER + PAST)
+    List<BookingDtoResponse> findPastByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query(BY_OWNER + FUTURE)
+    List<BookingDtoResponse> findFutureByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+                                                     Pageable pageable);
+
+    @Query(BY_OWNER + WITH_STATUS)
+    List<BookingDtoResponse> findAllByItemOwnerIdAndStatus(@Param("userId") Long owner,
+                                                           @Param("status") BookingStatus status, Pageable pageable);
+
+    // Вызывается с лимитом 1: поиск останавливается на первой подходящей строке, а не считает все.
+    @Query("select b.id from Booking b " +
+            " where b.item.id = :itemId and b.booker.id = :userId and b.end < :now")
+    List<Long> findIdsByItemIdAndBookerIdAndEndBefore(@Param("itemId") Long itemId, @Param("userId") Long userId,
+                                                      @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.status in (:statuses) and b.end > :now")
+    List<Booking> findAllByItemIdAndStatusInAndEndAfter(@Param("itemId") Long itemId,
+                                                        @Param("statuses") Collection<BookingStatus> statuses,
+                                                        @Param("now") LocalDateTime now);
+
+    @Query(value = "select t.item_id as itemId, t.id as id, t.booker_id as bookerId, t.kind as kind from ( " +
+            " select b.item_id, b.id, b.booker_id, 'LAST' as kind, " +
+            " row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            " from bookings b " +
+            " where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date <= :now " +
+            " union all " +
+            " select b.item_id, b.id, b.booker_id, 'NEXT' as kind, " +
+            " row_number() over (partition by b.item_id order by b.start_date asc, b.id asc) as rn " +
+            " from bookings b " +
+            " where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now " +
+            " ) t where t.rn = 1", nativeQuery = true)
+    List<BookingTimelineView> findTimelineByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                     @Param("now") LocalDateTime now);
 
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    @Query(BY_BOOKER + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextByBookerId(@Param("userId") Long bookerId, @Param("start") LocalDateTime start,
+            @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(BY_BOOKER + CURRENT + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextCurrentByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(BY_BOOKER + PAST + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextPastByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(BY_BOOKER + FUTURE + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextFutureByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query(BY_BOOKER + WITH_STATUS + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextByBookerIdAndStatus(@Param("userId") Long bookerId,
+            @Param("status") BookingStatus status, @Param("start") LocalDateTime start, @Param("id") Long id,
+            Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long owner, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(BY_OWNER + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextByItemOwnerId(@Param("userId") Long owner, @Param("start") LocalDateTime start,
+            @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long owner, LocalDateTime end, Pageable pageable);
+    @Query(BY_OWNER + CURRENT + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextCurrentByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long owner, LocalDateTime start, Pageable pageable);
+    @Query(BY_OWNER + PAST + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextPastByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long owner, BookingStatus status, Pageable pageable);
+    @Query(BY_OWNER + FUTURE + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextFutureByItemOwnerId(@Param("userId") Long owner, @Param("now") LocalDateTime now,
+            @Param("start") LocalDateTime start, @Param("id") Long id, Pageable pageable);
 
-    Boolean existsByItemIdAndBookerIdAndEndBefore(Long itemId, Long userId, LocalDateTime now);
+    @Query(BY_OWNER + WITH_STATUS + AFTER_CURSOR)
+    List<BookingDtoResponse> findNextByItemOwnerIdAndStatus(@Param("userId") Long owner,
+            @Param("status") BookingStatus status, @Param("start") LocalDateTime start, @Param("id") Long id,
+            Pageable pageable);
 
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            " where i.owner.id = :userId order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByItemOwnerId(@Param("userId") Long owner);
 }
@@ -1,7 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.conditional.Versioned;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -10,12 +15,22 @@ public interface BookingService {
 
     BookingDtoResponse createBooking(Long userId, BookingDtoRequest bookingDtoRequest);
 
-    BookingDtoResponse approveBooking(Long userId, Long bookingId, Boolean isApproved);
+    Versioned<BookingDtoResponse> approveBooking(Long userId, Long bookingId, Boolean isApproved, Long expectedVersion);
 
-    BookingDtoResponse getBookingById(Long userId, Long bookingId);
+    List<BookingBatchResult> approveBookings(Long userId, BookingBatchRequest batchRequest);
+
+    Versioned<BookingDtoResponse> getBookingById(Long userId, Long bookingId);
 
     List<BookingDtoResponse> getSortBookingByUser(Long userId, String bookingState, Integer from, Integer size);
 
     List<BookingDtoResponse> getSortBookingByOwner(Long ownerId, String bookingState, Integer from, Integer size);
 
+    List<BookingDtoResponse> getSortBookingByUser(Long userId, String bookingState, PageCursor after, Integer size);
+
+    List<BookingDtoResponse> getSortBookingByOwner(Long ownerId, String bookingState, PageCursor after, Integer size);
+
+    BookingSummaryDto getBookingSummaryByUser(Long userId);
+
+    BookingSummaryDto getBookingSummaryByOwner(Long ownerId);
+
 }
@@ -5,18 +5,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.conditional.ETags;
+import ru.practicum.shareit.conditional.Versioned;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,16 +42,19 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingStorage;
-    private final ItemRepository itemStorage;
-    private final UserRepository userStorage;
+    private final BookingCalendar bookingCalendar;
+    private final ItemViewCache itemViewCache;
+    private final IdValidator idValidator;
+    private final OutboxWriter outboxWriter;
+    private final ChangeSequence changeSequence;
 
-    private static final Sort DESC_SORT = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort DESC_SORT = Sort.by(Sort.Direction.DESC, "start", "id");
 
     @Override
     public BookingDtoResponse createBooking(Long userId, BookingDtoRequest bookingDtoRequest) {
 
-        User booker = checkUserId(userId);
-        Item item = checkItemId(bookingDtoRequest.getItemId());
+        User booker = idValidator.getUserReference(userId);
+        Item item = idValidator.getItem(bookingDtoRequest.getItemId());
 
         if (!item.getAvailable()) {
             throw new BookingException(String.format("Вещь с id %d не доступна для бронирования", item.getId()));
@@ -47,12 +66,17 @@ public class BookingServiceImpl implements BookingService {
 
         Booking booking = BookingMapper.toBooking(bookingDtoRequest, item, booker, BookingStatus.WAITING);
         bookingStorage.save(booking);
+        bookingCalendar.reserve(booking);
+        itemViewCache.evict(item.getId());
+        outboxWriter.append(OutboxEvent.BOOKING, booking.getId(), OutboxEvent.BOOKING_CREATED,
+                BookingMapper.toBookingEventDto(booking));
         log.info("Пользователь с id {} забронировал вещь с id {}", userId, bookingDtoRequest.getItemId());
         return BookingMapper.toBookingDtoResponse(booking);
     }
 
     @Override
-    public BookingDtoResponse approveBooking(Long userId, Long bookingId, Boolean isApproved) {
+    public Versioned<BookingDtoResponse> approveBooking(Long userId, Long bookingId, Boolean isApproved,
+                                                        Long expectedVersion) {
 
         Booking booking = checkBookingId(bookingId);
 
@@ -61,6 +85,8 @@ public class BookingServiceImpl implements BookingService {
                     "Пользователь с id %d не является владельцем вещи %d", userId, booking.getItem().getId()));
         }
 
+        ETags.checkVersion(expectedVersion, booking.getVersion());
+
         if (!booking.getStatus().equals(BookingStatus.WAITING)) {
             throw new BookingException(String.format("Бронирование уже %s", booking.getStatus()));
         }
@@ -71,14 +97,77 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(BookingStatus.REJECTED);
         }
 
-        Booking savedBooking = bookingStorage.save(booking);
+        // Сброс сразу: параллельное решение по той же версии получит конфликт до отправки событий,
+        // а в ответ уйдёт уже новая версия.
+        Booking savedBooking = bookingStorage.saveAndFlush(booking);
+        if (!isApproved) {
+            bookingCalendar.release(savedBooking);
+        }
+        itemViewCache.evict(booking.getItem().getId());
+        outboxWriter.append(OutboxEvent.BOOKING, bookingId, eventType(savedBooking.getStatus()),
+                BookingMapper.toBookingEventDto(savedBooking));
         log.info("Владелец изменил статус бронирования с id {} на {}", bookingId, isApproved);
-        return BookingMapper.toBookingDtoResponse(savedBooking);
+        return versioned(savedBooking);
+    }
+
+    @Override
+    public List<BookingBatchResult> approveBookings(Long userId, BookingBatchRequest batchRequest) {
+
+        idValidator.checkUser(userId);
+        Set<Long> bookingIds = new LinkedHashSet<>(batchRequest.getBookingIds());
+        BookingStatus status = batchRequest.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        Map<Long, BookingDecisionView> decisions = bookingStorage
+                .findDecisionsByIdInAndItemOwnerId(bookingIds, userId).stream()
+                .collect(Collectors.toMap(BookingDecisionView::getId, Function.identity()));
+        List<BookingDecisionView> waiting = bookingIds.stream()
+                .map(decisions::get)
+                .filter(decision -> decision != null && decision.getStatus() == BookingStatus.WAITING)
+                .collect(Collectors.toList());
+
+        if (!waiting.isEmpty()) {
+            List<Long> waitingIds = waiting.stream().map(BookingDecisionView::getId).collect(Collectors.toList());
+            // Один номер изменения на весь пакет: лента изменений не разрывает группу с одинаковым номером.
+            int updated = bookingStorage.updateStatusByIdInAndStatus(waitingIds, BookingStatus.WAITING, status,
+                    changeSequence.next());
+            if (updated != waitingIds.size()) {
+                throw new ConflictException("Статус части бронирований изменился во время обработки, повторите запрос");
+            }
+            Set<Long> itemIds = new HashSet<>();
+            for (BookingDecisionView decision : waiting) {
+                if (status == BookingStatus.REJECTED) {
+                    bookingCalendar.release(decision.getItemId(), decision.getId());
+                }
+                if (itemIds.add(decision.getItemId())) {
+                    itemViewCache.evict(decision.getItemId());
+                }
+            }
+            outboxWriter.appendAll(OutboxEvent.BOOKING, eventType(status), waiting.stream()
+                    .map(decision -> new OutboxWriter.Change(decision.getId(),
+                            BookingMapper.toBookingEventDto(decision, userId, status)))
+                    .collect(Collectors.toList()));
+        }
+
+        List<BookingBatchResult> results = new ArrayList<>(bookingIds.size());
+        for (Long bookingId : bookingIds) {
+            BookingDecisionView decision = decisions.get(bookingId);
+            if (decision == null) {
+                results.add(new BookingBatchResult(bookingId, BookingBatchResult.Outcome.NOT_FOUND, null));
+            } else if (decision.getStatus() == BookingStatus.WAITING) {
+                results.add(new BookingBatchResult(bookingId, BookingBatchResult.Outcome.UPDATED, status));
+            } else {
+                results.add(new BookingBatchResult(bookingId, BookingBatchResult.Outcome.ALREADY_DECIDED,
+                        decision.getStatus()));
+            }
+        }
+        log.info("Владелец с id {} изменил статус {} из {} бронирований на {}", userId, waiting.size(),
+                bookingIds.size(), status);
+        return results;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public BookingDtoResponse getBookingById(Long userId, Long bookingId) {
+    public Versioned<BookingDtoResponse> getBookingById(Long userId, Long bookingId) {
 
         Booking booking = checkBookingId(bookingId);
 
@@ -87,7 +176,7 @@ public class BookingServiceImpl implements BookingService {
                     "Пользователь с id %d не относится к этому бронированию", userId));
         }
         log.info("Получены данные бронирования с id {}", bookingId);
-        return BookingMapper.toBookingDtoResponse(booking);
+        return versioned(booking);
     }
 
     @Override
@@ -95,24 +184,24 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDtoResponse> getSortBookingByUser(Long userId, String stateStr, Integer from, Integer size) {
 
         BookingState state = BookingState.toState(stateStr);
-        checkUserId(userId);
+        idValidator.checkUser(userId);
 
-        List<Booking> bookings = null;
+        List<BookingDtoResponse> bookings = null;
 
         switch (state) {
             case ALL:
                 bookings = bookingStorage.findAllByBookerId(userId, Pagination.withSort(from, size, DESC_SORT));
                 break;
             case CURRENT:
-                bookings = bookingStorage.findAllByBookerIdAndStartBeforeAndEndAfter(userId, LocalDateTime.now(),
-                        LocalDateTime.now(), Pagination.withSort(from, size, DESC_SORT));
+                bookings = bookingStorage.findCurrentByBookerId(userId, LocalDateTime.now(),
+                        Pagination.withSort(from, size, DESC_SORT));
                 break;
             case PAST:
-                bookings = bookingStorage.findAllByBookerIdAndEndBefore(userId, LocalDateTime.now(),
+                bookings = bookingStorage.findPastByBookerId(userId, LocalDateTime.now(),
                         Pagination.withSort(from, size, DESC_SORT));
                 break;
             case FUTURE:
-                bookings = bookingStorage.findAllByBookerIdAndStartAfter(userId, LocalDateTime.now(),
+                bookings = bookingStorage.findFutureByBookerId(userId, LocalDateTime.now(),
                         Pagination.withSort(from, size, DESC_SORT));
                 break;
             case WAITING:
@@ -125,7 +214,7 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
         log.info("Получен список бронирований");
-        return bookings.stream().map(BookingMapper::toBookingDtoResponse).collect(Collectors.toList());
+        return bookings;
     }
 
     @Override
@@ -133,23 +222,23 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDtoResponse> getSortBookingByOwner(Long userId, String stateStr, Integer from, Integer size) {
 
         BookingState state = BookingState.toState(stateStr);
-        checkUserId(userId);
-        List<Booking> bookings = null;
+        idValidator.checkUser(userId);
+        List<BookingDtoResponse> bookings = null;
 
         switch (state) {
             case ALL:
                 bookings = bookingStorage.findAllByItemOwnerId(userId, Pagination.withSort(from, size, DESC_SORT));
                 break;
             case CURRENT:
-                bookings = bookingStorage.findAllByItemOwnerIdAndStartBeforeAndEndAfter(userId, LocalDateTime.now(),
-                        LocalDateTime.now(), Pagination.withSort(from, size, DESC_SORT));
+                bookings = bookingStorage.findCurrentByItemOwnerId(userId, LocalDateTime.now(),
+                        Pagination.withSort(from, size, DESC_SORT));
                 break;
             case PAST:
-                bookings = bookingStorage.findAllByItemOwnerIdAndEndBefore(userId, LocalDateTime.now(),
+                bookings = bookingStorage.findPastByItemOwnerId(userId, LocalDateTime.now(),
                         Pagination.withSort(from, size, DESC_SORT));
                 break;
             case FUTURE:
-                bookings = bookingStorage.findAllByItemOwnerIdAndStartAfter(userId, LocalDateTime.now(),
+                bookings = bookingStorage.findFutureByItemOwnerId(userId, LocalDateTime.now(),
                         Pagination.withSort(from, size, DESC_SORT));
                 break;
             case WAITING:
@@ -162,22 +251,121 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
         log.info("Получен список бронирований");
-        return bookings.stream().map(BookingMapper::toBookingDtoResponse).collect(Collectors.toList());
+        return bookings;
     }
 
-    private User checkUserId(Long userId) {
-        return userStorage.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Пользователь с id %d не существует", userId)));
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDtoResponse> getSortBookingByUser(Long userId, String stateStr, PageCursor after, Integer size) {
+
+        BookingState state = BookingState.toState(stateStr);
+        LocalDateTime start = after.requireKey();
+        idValidator.checkUser(userId);
+
+        List<BookingDtoResponse> bookings = null;
+
+        switch (state) {
+            case ALL:
+                bookings = bookingStorage.findNextByBookerId(userId, start, after.getId(), Pagination.keyset(size));
+                break;
+            case CURRENT:
+                bookings = bookingStorage.findNextCurrentByBookerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case PAST:
+                bookings = bookingStorage.findNextPastByBookerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case FUTURE:
+                bookings = bookingStorage.findNextFutureByBookerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case WAITING:
+                bookings = bookingStorage.findNextByBookerIdAndStatus(userId, BookingStatus.WAITING, start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case REJECTED:
+                bookings = bookingStorage.findNextByBookerIdAndStatus(userId, BookingStatus.REJECTED, start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+        }
+        log.info("Получен список бронирований после курсора {}", after);
+        return bookings;
     }
 
-    private Item checkItemId(Long itemId) {
-        return itemStorage.findById(itemId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Вещь с id %d не существует", itemId)));
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDtoResponse> getSortBookingByOwner(Long userId, String stateStr, PageCursor after, Integer size) {
+
+        BookingState state = BookingState.toState(stateStr);
+        LocalDateTime start = after.requireKey();
+        idValidator.checkUser(userId);
+
+        List<BookingDtoResponse> bookings = null;
+
+        switch (state) {
+            case ALL:
+                bookings = bookingStorage.findNextByItemOwnerId(userId, start, after.getId(), Pagination.keyset(size));
+                break;
+            case CURRENT:
+                bookings = bookingStorage.findNextCurrentByItemOwnerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case PAST:
+                bookings = bookingStorage.findNextPastByItemOwnerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case FUTURE:
+                bookings = bookingStorage.findNextFutureByItemOwnerId(userId, LocalDateTime.now(), start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case WAITING:
+                bookings = bookingStorage.findNextByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+            case REJECTED:
+                bookings = bookingStorage.findNextByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, start,
+                        after.getId(), Pagination.keyset(size));
+                break;
+        }
+        log.info("Получен список бронирований после курсора {}", after);
+        return bookings;
+    }
+
+    // В ответе есть название вещи, поэтому метка учитывает и версию вещи.
+    private static Versioned<BookingDtoResponse> versioned(Booking booking) {
+        return new Versioned<>(BookingMapper.toBookingDtoResponse(booking),
+                ETags.of(booking.getVersion(), booking.getItem().getVersion()));
     }
 
     private Booking checkBookingId(Long bookingId) {
-        return bookingStorage.findById(bookingId).orElseThrow(() ->
+        return bookingStorage.findDetailById(bookingId).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Бронирование с id %d не существует", bookingId)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByUser(Long userId) {
+
+        idValidator.checkUser(userId);
+        BookingSummaryDto summary = BookingMapper.toBookingSummaryDto(
+                bookingStorage.countByStateAndBookerId(userId, LocalDateTime.now()));
+        log.info("Получены счётчики бронирований пользователя с id {}", userId);
+        return summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByOwner(Long userId) {
+
+        idValidator.checkUser(userId);
+        BookingSummaryDto summary = BookingMapper.toBookingSummaryDto(
+                bookingStorage.countByStateAndItemOwnerId(userId, LocalDateTime.now()));
+        log.info("Получены счётчики бронирований владельца с id {}", userId);
+        return summary;
+    }
+
+    private static String eventType(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? OutboxEvent.BOOKING_APPROVED : OutboxEvent.BOOKING_REJECTED;
+    }
 }
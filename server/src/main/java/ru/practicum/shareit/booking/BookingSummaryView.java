@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingSummaryView {
+
+    Long getAllCount();
+
+    Long getCurrentCount();
+
+    Long getPastCount();
+
+    Long getFutureCount();
+
+    Long getWaitingCount();
+
+    Long getRejectedCount();
+}
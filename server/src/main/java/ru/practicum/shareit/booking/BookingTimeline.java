@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.ItemTimelineDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class BookingTimeline {
+
+    static final String LAST = "LAST";
+
+    static final String NEXT = "NEXT";
+
+    private final BookingRepository bookingRepository;
+
+    public Map<Long, ItemTimelineDto> findByItemIds(Collection<Long> itemIds, LocalDateTime now) {
+
+        Map<Long, ItemTimelineDto> timelines = new HashMap<>();
+
+        if (itemIds.isEmpty()) {
+            return timelines;
+        }
+
+        for (BookingTimelineView view : bookingRepository.findTimelineByItemIdIn(itemIds, now)) {
+            ItemTimelineDto timeline = timelines.computeIfAbsent(view.getItemId(), id -> new ItemTimelineDto());
+            BookingItemDto booking = BookingItemDto.builder()
+                    .id(view.getId())
+                    .bookerId(view.getBookerId())
+                    .build();
+
+            if (LAST.equals(view.getKind())) {
+                timeline.setLastBooking(booking);
+            } else {
+                timeline.setNextBooking(booking);
+            }
+        }
+        return timelines;
+    }
+
+    public ItemTimelineDto findByItemId(Long itemId, LocalDateTime now) {
+
+        return findByItemIds(List.of(itemId), now).getOrDefault(itemId, ItemTimelineDto.EMPTY);
+    }
+}
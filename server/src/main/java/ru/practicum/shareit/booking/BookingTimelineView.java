@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingTimelineView {
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    String getKind();
+}
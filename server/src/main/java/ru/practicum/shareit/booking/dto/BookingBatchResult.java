@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class BookingBatchResult {
+
+    private Long bookingId;
+
+    private Outcome outcome;
+
+    private BookingStatus status;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        ALREADY_DECIDED
+    }
+}
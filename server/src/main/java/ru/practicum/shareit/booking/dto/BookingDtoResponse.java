@@ -22,6 +22,10 @@ public class BookingDtoResponse {
     private UserBookingDto booker;
     private BookingStatus status;
 
+    public BookingDtoResponse(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                              Long bookerId, BookingStatus status) {
+        this(id, start, end, new ItemBookingDto(itemId, itemName), new UserBookingDto(bookerId), status);
+    }
 }
 
 
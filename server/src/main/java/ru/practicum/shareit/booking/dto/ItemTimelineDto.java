@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class ItemTimelineDto {
+
+    public static final ItemTimelineDto EMPTY = new ItemTimelineDto(null, null);
+
+    private BookingItemDto lastBooking;
+    private BookingItemDto nextBooking;
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BulkImport {
+
+    // Должно совпадать с allocationSize у @SequenceGenerator: одно значение последовательности — блок из 50 id.
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private final ObjectMapper objectMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int maxErrors;
+
+    public BulkImport(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                      @Value("${shareit.import.chunk-size:1000}") int chunkSize,
+                      @Value("${shareit.import.max-errors:1000}") int maxErrors) {
+
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public <T> ImportReport read(InputStream body, Class<T> type, BiConsumer<List<ImportRow<T>>, ImportReport> writer) {
+
+        ImportReport report = new ImportReport(maxErrors);
+        List<ImportRow<T>> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                report.setTotal(report.getTotal() + 1);
+                try {
+                    JsonNode node = objectMapper.readTree(text);
+                    chunk.add(new ImportRow<>(node.path("row").asLong(line), objectMapper.treeToValue(node, type)));
+                } catch (JsonProcessingException e) {
+                    report.rejected(line, "Некорректная строка: " + e.getOriginalMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    writer.accept(chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            writer.accept(chunk, report);
+        }
+        return report;
+    }
+
+    public List<Long> allocateIds(String sequence, int count) {
+
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            Long low = jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+            for (int i = 0; i < SEQUENCE_BLOCK && ids.size() < count; i++) {
+                ids.add(low + i);
+            }
+        }
+        return ids;
+    }
+
+    public <T> List<ImportRow<T>> insert(String sql, List<ImportRow<T>> rows, Function<T, Object[]> arguments,
+                                         ImportReport report) {
+
+        return insert(sql, rows, arguments, value -> { }, report);
+    }
+
+    public <T> List<ImportRow<T>> insert(String sql, List<ImportRow<T>> rows, Function<T, Object[]> arguments,
+                                         Consumer<List<T>> inTransaction, ImportReport report) {
+
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        try {
+            List<T> values = rows.stream().map(ImportRow::getValue).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                // Аргументы собираются внутри транзакции: им могут понадобиться номера изменений этой транзакции.
+                jdbcTemplate.batchUpdate(sql, values.stream().map(arguments).collect(Collectors.toList()));
+                inTransaction.accept(values);
+            });
+            report.accepted(rows.size());
+            return rows;
+        } catch (DataAccessException e) {
+            log.warn("Пакет из {} строк не записан, повтор по одной строке: {}", rows.size(),
+                    e.getMostSpecificCause().getMessage());
+        }
+
+        List<ImportRow<T>> inserted = new ArrayList<>(rows.size());
+        for (ImportRow<T> row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(sql, arguments.apply(row.getValue()));
+                    inTransaction.accept(List.of(row.getValue()));
+                });
+                inserted.add(row);
+                report.accepted(1);
+            } catch (DataAccessException e) {
+                report.rejected(row.getRow(), e.getMostSpecificCause().getMessage());
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReport {
+
+    private long total;
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    @JsonIgnore
+    private int maxErrors = Integer.MAX_VALUE;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void accepted(int count) {
+        imported += count;
+    }
+
+    public void rejected(long row, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRow<T> {
+
+    private final long row;
+
+    private final T value;
+
+    public <R> ImportRow<R> with(R value) {
+        return new ImportRow<>(row, value);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.cache.hibernate")
+public class HibernateCacheProperties {
+
+    private Region defaults = new Region();
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        private long maxSize = 10_000;
+
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
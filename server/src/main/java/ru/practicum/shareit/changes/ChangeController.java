@@ -0,0 +1,25 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+
+@RestController
+@RequestMapping("/changes")
+@Slf4j
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private final ChangeService changeService;
+
+    @GetMapping
+    public ChangesDto getChanges(@RequestHeader(USER_HEADER) Long userId,
+                                 @RequestParam(defaultValue = "0") Long since) {
+
+        log.info("GET-запрос '/changes' на получение изменений после токена {} пользователем с id:{}", since, userId);
+
+        return changeService.getChanges(userId, since);
+    }
+}
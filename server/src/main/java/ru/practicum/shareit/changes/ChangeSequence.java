@@ -0,0 +1,74 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+@Component
+@RequiredArgsConstructor
+public class ChangeSequence {
+
+    // Должно совпадать с INCREMENT BY у change_seq: одно значение последовательности — блок из 50 номеров.
+    private static final int SEQUENCE_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Номера, выданные ещё не завершённым транзакциям: строки с ними пока не видны читателям ленты.
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    private long next;
+
+    private long blockEnd;
+
+    private long issued;
+
+    public synchronized long next() {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Номер изменения может быть выдан только внутри транзакции");
+        }
+        long value = allocate();
+        inFlight.add(value);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(value);
+            }
+        });
+        return value;
+    }
+
+    // Граница, до которой все изменения уже зафиксированы или откачены: строка с меньшим номером позже не появится.
+    // Берётся до чтения ленты, иначе медленная транзакция может проскочить мимо выданного токена.
+    public synchronized long visibleUpTo() {
+
+        if (!inFlight.isEmpty()) {
+            return inFlight.first() - 1;
+        }
+        if (issued == 0) {
+            allocate();
+        }
+        return issued;
+    }
+
+    private synchronized void release(long value) {
+
+        inFlight.remove(value);
+    }
+
+    private long allocate() {
+
+        if (next == blockEnd) {
+            Long low = jdbcTemplate.queryForObject("select nextval('change_seq')", Long.class);
+            next = low;
+            blockEnd = low + SEQUENCE_BLOCK;
+        }
+        issued = next++;
+        return issued;
+    }
+}
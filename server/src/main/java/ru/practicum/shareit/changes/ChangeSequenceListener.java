@@ -0,0 +1,21 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+@Component
+@RequiredArgsConstructor
+public class ChangeSequenceListener {
+
+    private final ChangeSequence changeSequence;
+
+    @PrePersist
+    @PreUpdate
+    public void touch(Object entity) {
+
+        ((ChangeTracked) entity).setChangeSeq(changeSequence.next());
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.changes;
+
+import ru.practicum.shareit.changes.dto.ChangesDto;
+
+public interface ChangeService {
+
+    ChangesDto getChanges(Long userId, long since);
+}
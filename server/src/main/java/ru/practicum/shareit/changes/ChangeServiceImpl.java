@@ -0,0 +1,156 @@
+package ru.practicum.shareit.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.pagination.Pagination;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestMapper;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ChangeServiceImpl implements ChangeService {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final RequestRepository requestRepository;
+    private final ChangeSequence changeSequence;
+    private final IdValidator idValidator;
+    private final int limit;
+
+    public ChangeServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository,
+                             CommentRepository commentRepository, RequestRepository requestRepository,
+                             ChangeSequence changeSequence, IdValidator idValidator,
+                             @Value("${shareit.changes.limit:500}") int limit) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.requestRepository = requestRepository;
+        this.changeSequence = changeSequence;
+        this.idValidator = idValidator;
+        this.limit = limit;
+    }
+
+    @Override
+    public ChangesDto getChanges(Long userId, long since) {
+
+        idValidator.checkUser(userId);
+        Window window = new Window(userId, since, changeSequence.visibleUpTo());
+
+        List<Booking> booked = window.take(bookingRepository::findChangesByBookerId);
+        List<Booking> owned = window.take(bookingRepository::findChangesByItemOwnerId);
+        List<Item> items = window.take(itemRepository::findChangesByOwnerId);
+        List<Item> answers = window.take(itemRepository::findChangesByRequestorId);
+        List<Comment> written = window.take(commentRepository::findChangesByAuthorId);
+        List<Comment> received = window.take(commentRepository::findChangesByItemOwnerId);
+        List<ItemRequest> requests = window.take(requestRepository::findChangesByRequestorId);
+
+        // Ответы на запросы приходят в items, поэтому у запросов список вещей не заполняется.
+        ChangesDto changes = ChangesDto.builder()
+                .token(window.token)
+                .hasMore(window.truncated)
+                .bookings(window.merge(Booking::getId, booked, owned).stream()
+                        .map(BookingMapper::toBookingDtoResponse)
+                        .collect(Collectors.toList()))
+                .items(window.merge(Item::getId, items, answers).stream()
+                        .map(ItemMapper::toItemShortDto)
+                        .collect(Collectors.toList()))
+                .comments(window.merge(Comment::getId, written, received).stream()
+                        .map(CommentMapper::toCommentDto)
+                        .collect(Collectors.toList()))
+                .requests(window.merge(ItemRequest::getId, requests).stream()
+                        .map(request -> RequestMapper.toItemRequestResponseDto(request, null))
+                        .collect(Collectors.toList()))
+                .build();
+        log.info("Пользователь с id {} получил изменения после токена {}: бронирований {}, вещей {}, " +
+                        "комментариев {}, запросов {}, новый токен {}", userId, since, changes.getBookings().size(),
+                changes.getItems().size(), changes.getComments().size(), changes.getRequests().size(),
+                changes.getToken());
+
+        return changes;
+    }
+
+    private interface Feed<T> {
+
+        List<T> fetch(Long userId, long since, long until, Pageable pageable);
+    }
+
+    private final class Window {
+
+        private final Long userId;
+
+        private final long since;
+
+        private final long until;
+
+        private long token;
+
+        private boolean truncated;
+
+        private Window(Long userId, long since, long until) {
+            this.userId = userId;
+            this.since = since;
+            this.until = until;
+            this.token = Math.max(since, until);
+        }
+
+        private <T extends ChangeTracked> List<T> take(Feed<T> feed) {
+
+            if (until <= since) {
+                return List.of();
+            }
+            List<T> rows = feed.fetch(userId, since, until, Pagination.keyset(limit + 1));
+            if (rows.size() <= limit) {
+                return rows;
+            }
+            truncated = true;
+            long boundary = rows.get(limit).getChangeSeq();
+            List<T> taken = rows.stream()
+                    .filter(row -> row.getChangeSeq() < boundary)
+                    .collect(Collectors.toList());
+            if (!taken.isEmpty()) {
+                token = Math.min(token, boundary - 1);
+                return taken;
+            }
+            // Вся страница — изменения с одним номером (пакетное подтверждение): группу нельзя разрывать токеном.
+            token = Math.min(token, boundary);
+            return feed.fetch(userId, boundary - 1, boundary, Pageable.unpaged());
+        }
+
+        // Строки новее итогового токена отбрасываются: следующий запрос вернёт их вместе с остатком своей ленты.
+        @SafeVarargs
+        private <T extends ChangeTracked> List<T> merge(Function<T, Long> id, List<T>... feeds) {
+
+            Map<Long, T> rows = Stream.of(feeds)
+                    .flatMap(List::stream)
+                    .filter(row -> row.getChangeSeq() <= token)
+                    .sorted(Comparator.comparing(ChangeTracked::getChangeSeq))
+                    .collect(Collectors.toMap(id, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+            return List.copyOf(rows.values());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.changes;
+
+public interface ChangeTracked {
+
+    Long getChangeSeq();
+
+    void setChangeSeq(Long changeSeq);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangesDto {
+
+    private long token;
+
+    private boolean hasMore;
+
+    private List<BookingDtoResponse> bookings;
+
+    private List<ItemShortDto> items;
+
+    private List<CommentDto> comments;
+
+    private List<ItemRequestResponseDto> requests;
+}
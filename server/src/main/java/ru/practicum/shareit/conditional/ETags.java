@@ -0,0 +1,75 @@
+package ru.practicum.shareit.conditional;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Метка имеет вид "версия-уточнение": первая часть — @Version сущности, по ней проверяется If-Match,
+// остальные части описывают то, от чего ещё зависит представление.
+@UtilityClass
+public class ETags {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    public static String of(Object... parts) {
+
+        return Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    @Nullable
+    public static Long version(@Nullable String ifMatch) {
+
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        int end = tag.indexOf('-');
+        try {
+            return Long.parseLong(tag.substring(1, end < 0 ? tag.length() - 1 : end));
+        } catch (RuntimeException e) {
+            throw new PreconditionFailedException(String.format("Некорректный заголовок If-Match: %s", ifMatch));
+        }
+    }
+
+    public static void checkVersion(@Nullable Long expected, Long actual) {
+
+        if (expected != null && !expected.equals(actual)) {
+            throw new PreconditionFailedException(String.format(
+                    "Ресурс изменён: ожидалась версия %d, текущая %d", expected, actual));
+        }
+    }
+
+    public static boolean matches(@Nullable String ifNoneMatch, String eTag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                .anyMatch(tag -> ANY.equals(tag) || tag.equals(eTag));
+    }
+
+    // При совпадении тело не сериализуется: клиенту уходит только 304 с той же меткой.
+    public static <T> ResponseEntity<T> toResponse(Versioned<T> versioned, @Nullable String ifNoneMatch) {
+
+        if (matches(ifNoneMatch, versioned.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(versioned.getETag()).build();
+        }
+        return ResponseEntity.ok().eTag(versioned.getETag()).body(versioned.getBody());
+    }
+
+    public static <T> ResponseEntity<T> toResponse(Versioned<T> versioned) {
+
+        return toResponse(versioned, null);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.conditional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Versioned<T> {
+
+    private final T body;
+
+    private final String eTag;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exception;
+
+public class PaginationException extends RuntimeException {
+
+    public PaginationException(String message) {
+        super(message);
+    }
+}
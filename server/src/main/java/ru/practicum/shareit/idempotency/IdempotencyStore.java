@@ -0,0 +1,211 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String SELECT = "select request_hash, response from idempotency_keys " +
+            " where user_id = ? and idempotency_key = ? and created > ?";
+
+    private static final String DELETE_EXPIRED_KEY = "delete from idempotency_keys " +
+            " where user_id = ? and idempotency_key = ? and created <= ?";
+
+    private static final String INSERT = "insert into idempotency_keys (user_id, idempotency_key, request_hash, created) " +
+            " values (?, ?, ?, ?)";
+
+    private static final String UPDATE_RESPONSE = "update idempotency_keys set response = ? " +
+            " where user_id = ? and idempotency_key = ?";
+
+    private static final String DELETE_EXPIRED = "delete from idempotency_keys where created <= ?";
+
+    private static final RowMapper<StoredResponse> RESPONSE_MAPPER = (rs, rowNum) ->
+            new StoredResponse(rs.getString("request_hash"), rs.getString("response"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration ttl;
+
+    private final Cache<Key, StoredResponse> responses;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${shareit.idempotency.max-size:10000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+
+        responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "shareit.idempotency");
+    }
+
+    // Ключ занимается в той же транзакции, что и само создание: повтор с тем же ключом ждёт на первичном ключе,
+    // пока первый запрос не завершится, и затем получает сохранённый ответ. Если создание упало,
+    // ключ откатывается вместе с ним и запрос можно повторить.
+    public <T> ResponseEntity<Object> execute(Long userId, @Nullable String idempotencyKey, String operation,
+                                              Object request, Supplier<T> action) {
+
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(action.get());
+        }
+
+        Key key = new Key(userId, idempotencyKey);
+        String requestHash = hash(operation, request);
+        StoredResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return replay(key, cached, requestHash);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                StoredResponse stored = find(key);
+                if (stored != null) {
+                    return replay(key, stored, requestHash);
+                }
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.update(DELETE_EXPIRED_KEY, userId, idempotencyKey, expiredBefore());
+                jdbcTemplate.update(INSERT, userId, idempotencyKey, requestHash, now);
+
+                T response = action.get();
+                StoredResponse created = new StoredResponse(requestHash, toJson(response));
+                jdbcTemplate.update(UPDATE_RESPONSE, created.getResponse(), userId, idempotencyKey);
+                afterCommit(() -> responses.put(key, created));
+                return ResponseEntity.<Object>ok(response);
+            });
+        } catch (DuplicateKeyException e) {
+            StoredResponse stored = find(key);
+            if (stored == null) {
+                throw e;
+            }
+            return replay(key, stored, requestHash);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shareit.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${shareit.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+
+        int purged = jdbcTemplate.update(DELETE_EXPIRED, expiredBefore());
+        if (purged > 0) {
+            log.info("Удалено {} просроченных ключей идемпотентности", purged);
+        }
+    }
+
+    @Nullable
+    private StoredResponse find(Key key) {
+
+        List<StoredResponse> stored = jdbcTemplate.query(SELECT, RESPONSE_MAPPER, key.getUserId(),
+                key.getIdempotencyKey(), expiredBefore());
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    private ResponseEntity<Object> replay(Key key, StoredResponse stored, String requestHash) {
+
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(String.format(
+                    "Ключ идемпотентности %s уже использован для другого запроса", key.getIdempotencyKey()));
+        }
+        responses.put(key, stored);
+        log.info("Повтор запроса пользователя с id {} по ключу {}: возвращён сохранённый ответ",
+                key.getUserId(), key.getIdempotencyKey());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.getResponse().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.valueOf(LocalDateTime.now().minus(ttl));
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось вычислить хеш запроса: " + e.getMessage(), e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать ответ: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        Long userId;
+
+        String idempotencyKey;
+    }
+
+    @lombok.Value
+    private static class StoredResponse {
+
+        String requestHash;
+
+        String response;
+    }
+}
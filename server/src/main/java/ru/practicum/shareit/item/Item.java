@@ -1,24 +1,30 @@
 package ru.practicum.shareit.item;
 
 import lombok.*;
-import org.hibernate.annotations.JoinFormula;
-import ru.practicum.shareit.booking.Booking;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.changes.ChangeSequenceListener;
+import ru.practicum.shareit.changes.ChangeTracked;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
 
 
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 @Entity
+@EntityListeners(ChangeSequenceListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEMS)
 @NoArgsConstructor
 @Table(name = "items")
-public class Item {
+public class Item implements ChangeTracked {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -30,28 +36,17 @@ public class Item {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
     @Column(name = "request_id")
     private Long requestId;
 
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinFormula("(SELECT b.id FROM bookings b " +
-            " WHERE b.item_id = id " +
-            " AND b.start_date > LOCALTIMESTAMP(2) " +
-            " AND b.status = 'APPROVED' " +
-            " ORDER BY b.start_date ASC LIMIT 1)")
-    private Booking nextBooking;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinFormula("(SELECT b.id FROM bookings b " +
-            " WHERE b.item_id = id " +
-            " AND b.start_date <= LOCALTIMESTAMP(2) " +
-            " AND b.status = 'APPROVED' " +
-            " ORDER BY b.end_date DESC LIMIT 1)")
-    private Booking lastBooking;
-
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -2,13 +2,23 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.bulk.ImportReport;
+import ru.practicum.shareit.conditional.ETags;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,41 +30,82 @@ public class ItemController {
 
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     private final ItemService itemService;
 
+    private final ItemImporter itemImporter;
+
+    private final IdempotencyStore idempotencyStore;
+
     @PostMapping
-    public ItemShortDto createItem(@RequestHeader(USER_HEADER) Long ownerId, @RequestBody ItemShortDto item) {
+    public ResponseEntity<Object> createItem(@RequestHeader(USER_HEADER) Long ownerId, @RequestBody ItemShortDto item,
+                                             @RequestHeader(value = IdempotencyStore.HEADER,
+                                                     required = false) String idempotencyKey) {
 
         log.info("POST-запрос: '/items' на создание вещи владельцем с id={}", ownerId);
 
-        return itemService.createItem(item, ownerId);
+        return idempotencyStore.execute(ownerId, idempotencyKey, "POST /items", item,
+                () -> itemService.createItem(item, ownerId));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importItems(@RequestHeader(USER_HEADER) Long ownerId, InputStream body) {
+
+        log.info("POST-запрос: '/items/import' на импорт вещей владельцем с id={}", ownerId);
+
+        return itemImporter.importItems(ownerId, body);
     }
 
     @PatchMapping("/{itemId}")
     public ItemShortDto updateItem(@RequestHeader(USER_HEADER) Long ownerId, @PathVariable Long itemId,
-                                   @RequestBody ItemShortDto item) {
+                                   @RequestBody ItemShortDto item,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         log.info("PATCH-запрос: '/items/{itemId}' на обновление вещи с id={}", itemId);
 
-        return itemService.updateItem(item, ownerId, itemId);
+        return itemService.updateItem(item, ownerId, itemId, ETags.version(ifMatch));
     }
 
     @GetMapping("/{itemId}")
-    public ItemResponseDto getItemById(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long itemId) {
+    public ResponseEntity<ItemResponseDto> getItemById(@RequestHeader(USER_HEADER) Long userId,
+                                                       @PathVariable Long itemId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                               required = false) String ifNoneMatch) {
 
         log.info("GET-запрос: '/items/{itemId}' на получение вещи с id={}", itemId);
 
-        return itemService.getItemById(itemId, userId);
+        return ETags.toResponse(itemService.getItemById(itemId, userId), ifNoneMatch);
     }
 
     @GetMapping
-    public List<ItemResponseDto> getItemsByUser(@RequestHeader(USER_HEADER) Long ownerId,
+    public ResponseEntity<List<ItemResponseDto>> getItemsByUser(@RequestHeader(USER_HEADER) Long ownerId,
                                         @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                        @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                        @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                        @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/items' на получение всех вещей владельца с id={}", ownerId);
 
-        return itemService.getItemsByUser(ownerId, from, size);
+        List<ItemResponseDto> items = after == null
+                ? itemService.getItemsByUser(ownerId, from, size)
+                : itemService.getItemsByUser(ownerId, PageCursor.decode(after), size);
+
+        return PageCursor.toResponse(items, size, i -> PageCursor.of(null, i.getId()));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeWindowDto> getAvailability(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long itemId,
+                                               @RequestParam(name = "from", required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(name = "to", required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("GET-запрос: '/items/{itemId}/availability' на получение свободных окон вещи с id={}", itemId);
+
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = to == null ? start.plusDays(DEFAULT_AVAILABILITY_DAYS) : to;
+
+        return itemService.getAvailability(itemId, start, end);
     }
 
     @GetMapping("/search")
@@ -68,13 +119,16 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public CommentDto createComment(@PathVariable Long itemId,
-                                            @RequestHeader(USER_HEADER) Long userId,
-                                            @RequestBody CommentShortDto comment) {
+    public ResponseEntity<Object> createComment(@PathVariable Long itemId,
+                                                @RequestHeader(USER_HEADER) Long userId,
+                                                @RequestBody CommentShortDto comment,
+                                                @RequestHeader(value = IdempotencyStore.HEADER,
+                                                        required = false) String idempotencyKey) {
 
         log.info("POST-запрос: '/{itemId}/comment' на создание комментария" +
                 " пользователем с id={} для вещи с id={}, текст комментария:{}", userId, itemId, comment);
 
-        return itemService.createComment(itemId, userId, comment);
+        return idempotencyStore.execute(userId, idempotencyKey, "POST /items/" + itemId + "/comment", comment,
+                () -> itemService.createComment(itemId, userId, comment));
     }
 }
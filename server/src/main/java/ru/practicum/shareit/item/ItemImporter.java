@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.bulk.BulkImport;
+import ru.practicum.shareit.bulk.ImportReport;
+import ru.practicum.shareit.bulk.ImportRow;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImporter {
+
+    private static final String INSERT = "insert into items (id, name, description, available, owner_id, request_id, " +
+            " change_seq) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final BulkImport bulkImport;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemSearchEngine itemSearchEngine;
+    private final IdValidator idValidator;
+    private final OutboxWriter outboxWriter;
+    private final ChangeSequence changeSequence;
+
+    public ImportReport importItems(Long ownerId, InputStream body) {
+
+        idValidator.checkUser(ownerId);
+        User owner = User.builder().id(ownerId).build();
+
+        ImportReport report = bulkImport.read(body, ItemShortDto.class,
+                (rows, chunkReport) -> writeChunk(owner, rows, chunkReport));
+        log.info("Пользователь с id {} импортировал {} вещей из {}, ошибок {}", ownerId, report.getImported(),
+                report.getTotal(), report.getFailed());
+        return report;
+    }
+
+    private void writeChunk(User owner, List<ImportRow<ItemShortDto>> rows, ImportReport report) {
+
+        Set<Long> requestIds = existingRequestIds(rows);
+        List<ImportRow<ItemShortDto>> accepted = new ArrayList<>(rows.size());
+        for (ImportRow<ItemShortDto> row : rows) {
+            Long requestId = row.getValue().getRequestId();
+            if (requestId != null && !requestIds.contains(requestId)) {
+                report.rejected(row.getRow(), String.format("Запрос с id %d не существует", requestId));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        List<Long> ids = bulkImport.allocateIds("items_seq", accepted.size());
+        List<ImportRow<Item>> items = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Item item = ItemMapper.toItem(accepted.get(i).getValue(), owner);
+            item.setId(ids.get(i));
+            items.add(accepted.get(i).with(item));
+        }
+
+        List<ImportRow<Item>> inserted = bulkImport.insert(INSERT, items, this::toArguments,
+                this::created, report);
+        for (ImportRow<Item> row : inserted) {
+            itemSearchEngine.index(row.getValue());
+            idValidator.itemCreated(row.getValue().getId());
+        }
+    }
+
+    private void created(List<Item> items) {
+
+        outboxWriter.appendAll(OutboxEvent.ITEM, OutboxEvent.ITEM_CREATED, items.stream()
+                .map(item -> new OutboxWriter.Change(item.getId(), ItemMapper.toItemShortDto(item)))
+                .collect(Collectors.toList()));
+    }
+
+    private Set<Long> existingRequestIds(List<ImportRow<ItemShortDto>> rows) {
+
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.getValue().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("select id from item_requests where id in (:ids)",
+                Map.of("ids", requestIds), Long.class));
+    }
+
+    private Object[] toArguments(Item item) {
+        item.setChangeSeq(changeSequence.next());
+        return new Object[]{item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequestId(), item.getChangeSeq()};
+    }
+}
@@ -2,7 +2,7 @@ package ru.practicum.shareit.item;
 
 
 import lombok.experimental.UtilityClass;
-import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.ItemTimelineDto;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
@@ -29,19 +29,38 @@ public class ItemMapper {
 
     public ItemResponseDto toItemResponseDto(Item item, List<CommentDto> comments) {
 
+        return toItemResponseDto(item, ItemTimelineDto.EMPTY, comments);
+    }
+
+    public ItemResponseDto toItemResponseDto(Item item, ItemTimelineDto timeline, List<CommentDto> comments) {
+
         return ItemResponseDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequestId())
-                .lastBooking(BookingMapper.toBookingItemDto(item.getLastBooking()))
-                .nextBooking(BookingMapper.toBookingItemDto(item.getNextBooking()))
+                .lastBooking(timeline.getLastBooking())
+                .nextBooking(timeline.getNextBooking())
                 .comments(comments)
                 .build();
 
     }
 
+    public ItemResponseDto toItemResponseDto(ItemResponseDto item, ItemTimelineDto timeline) {
+
+        return ItemResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .lastBooking(timeline.getLastBooking())
+                .nextBooking(timeline.getNextBooking())
+                .comments(item.getComments())
+                .build();
+    }
+
     public ItemShortDto toItemShortDto(Item item) {
 
         return ItemShortDto.builder()
@@ -12,14 +12,39 @@ import java.util.Set;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllItemsByOwnerId(Long userId, Pageable pageable);
+    String CHANGES = " and i.changeSeq > :since and i.changeSeq <= :until order by i.changeSeq";
 
-    @Query("select i from Item i where lower(i.name) like lower(concat('%', :search, '%')) " +
-            " or lower(i.description) like lower(concat('%', :search, '%')) " +
-            " and i.available = true")
+    @Query("select i from Item i where i.owner.id = :userId")
+    List<Item> findAllItemsByOwnerId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select i from Item i where i.owner.id = :userId and i.id > :id order by i.id asc")
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId, @Param("id") Long id,
+                                                            Pageable pageable);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select i from Item i where i.available = true " +
+            " and (lower(i.name) like lower(concat('%', :search, '%')) " +
+            " or lower(i.description) like lower(concat('%', :search, '%')))")
     List<Item> search(@Param("search") String text, Pageable pageable);
 
+    @Query(value = "select i.* from items i " +
+            " where i.available = true " +
+            " and i.search_vector @@ (to_tsquery('russian', :query) || to_tsquery('english', :query)) " +
+            " order by ts_rank(i.search_vector, to_tsquery('russian', :query) || to_tsquery('english', :query)) desc, " +
+            " i.id asc", nativeQuery = true)
+    List<Item> searchFullText(@Param("query") String query, Pageable pageable);
+
     List<ItemForRequestDto> findAllByRequestIdIn(Set<Long> requestIds);
 
     List<ItemForRequestDto> findAllByRequestId(Long requestId);
+
+    @Query("select i from Item i where i.owner.id = :userId " + CHANGES)
+    List<Item> findChangesByOwnerId(@Param("userId") Long ownerId, @Param("since") long since,
+                                    @Param("until") long until, Pageable pageable);
+
+    @Query("select i from Item i where i.requestId in " +
+            " (select r.id from ItemRequest r where r.requestor.id = :userId) " + CHANGES)
+    List<Item> findChangesByRequestorId(@Param("userId") Long requestorId, @Param("since") long since,
+                                        @Param("until") long until, Pageable pageable);
 }
@@ -1,24 +1,32 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.conditional.Versioned;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemShortDto createItem(ItemShortDto item, Long ownerId);
 
-    ItemShortDto updateItem(ItemShortDto item, Long ownerId, Long itemId);
+    ItemShortDto updateItem(ItemShortDto item, Long ownerId, Long itemId, Long expectedVersion);
 
-    ItemResponseDto getItemById(Long itemId, Long userId);
+    Versioned<ItemResponseDto> getItemById(Long itemId, Long userId);
 
     List<ItemResponseDto> getItemsByUser(Long ownerId, Integer from, Integer size);
 
+    List<ItemResponseDto> getItemsByUser(Long ownerId, PageCursor after, Integer size);
+
     List<ItemShortDto> getItemsBySearchQuery(String text, Integer from, Integer size);
 
+    List<FreeWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto createComment(Long userId, Long itemId, CommentShortDto commentShortDto);
 
 }
\ No newline at end of file
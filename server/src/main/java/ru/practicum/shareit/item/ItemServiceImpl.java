@@ -2,9 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.dto.ItemTimelineDto;
+import ru.practicum.shareit.conditional.ETags;
+import ru.practicum.shareit.conditional.Versioned;
 import ru.practicum.shareit.exception.BookingException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.comment.Comment;
@@ -14,11 +21,12 @@ import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
-import ru.practicum.shareit.request.ItemRequest;
-import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -32,33 +40,43 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
-    private final RequestRepository requestRepository;
+    private final BookingTimeline bookingTimeline;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingCalendar bookingCalendar;
+    private final ItemViewCache itemViewCache;
+    private final IdValidator idValidator;
+    private final OutboxWriter outboxWriter;
 
+    private static final Sort ID_ASC = Sort.by(Sort.Direction.ASC, "id");
 
     @Override
     public ItemShortDto createItem(ItemShortDto item, Long userId) {
 
-        User user = checkUserId(userId);
+        User user = idValidator.getUserReference(userId);
         if (item.getRequestId() != null) {
-            checkRequestId(item.getRequestId());
+            idValidator.checkRequest(item.getRequestId());
         }
         Item createdItem = itemRepository.save(ItemMapper.toItem(item, user));
-        log.info("Пользователь с id {} создал вещь {}", userId, createdItem);
-        return ItemMapper.toItemShortDto(createdItem);
+        itemSearchEngine.index(createdItem);
+        idValidator.itemCreated(createdItem.getId());
+        ItemShortDto created = ItemMapper.toItemShortDto(createdItem);
+        outboxWriter.append(OutboxEvent.ITEM, createdItem.getId(), OutboxEvent.ITEM_CREATED, created);
+        log.info("Пользователь с id {} создал вещь с id {}", userId, createdItem.getId());
+        return created;
 
     }
 
     @Override
-    public ItemShortDto updateItem(ItemShortDto item, Long ownerId, Long itemId) {
+    public ItemShortDto updateItem(ItemShortDto item, Long ownerId, Long itemId, Long expectedVersion) {
 
-        Item expectedItem = checkItemId(itemId);
+        Item expectedItem = idValidator.getItem(itemId);
         if (!expectedItem.getOwner().getId().equals(ownerId)) {
             throw new EntityNotFoundException(
                     String.format("Пользователь с id %d не является владельцем вещи с id %d", ownerId, itemId));
         }
+        ETags.checkVersion(expectedVersion, expectedItem.getVersion());
         if (item.getName() != null && !item.getName().isBlank()) {
             expectedItem.setName(item.getName());
         }
@@ -68,56 +86,56 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() != null) {
             expectedItem.setAvailable(item.getAvailable());
         }
-        itemRepository.save(expectedItem);
+        itemRepository.saveAndFlush(expectedItem);
+        itemSearchEngine.index(expectedItem);
+        itemViewCache.evict(itemId);
+        ItemShortDto updated = ItemMapper.toItemShortDto(expectedItem);
+        outboxWriter.append(OutboxEvent.ITEM, itemId, OutboxEvent.ITEM_UPDATED, updated);
         log.info("Пользователь с id {} обновил вещь с id {}", ownerId, itemId);
 
-        return ItemMapper.toItemShortDto(expectedItem);
+        // ETag не отдаётся: у ответа другое представление, чем у GET /items/{id}, и тег того же формата
+        // вводил бы в заблуждение If-None-Match. Актуальный тег клиент получает следующим GET.
+        return updated;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemResponseDto getItemById(Long itemId, Long userId) {
+    public Versioned<ItemResponseDto> getItemById(Long itemId, Long userId) {
 
-        Item item = checkItemId(itemId);
-        List<CommentDto> comments = commentRepository.findAllByItemId(itemId)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
-        if (item.getOwner().getId().equals(userId)) {
-            log.info("Получена вещь с id {}", itemId);
-            return ItemMapper.toItemResponseDto(item, comments);
-        }
-        item.setLastBooking(null);
-        item.setNextBooking(null);
+        ItemViewCache.ItemView view = itemViewCache.getView(itemId, this::loadItemView);
         log.info("Получена вещь с id {}", itemId);
 
-        return ItemMapper.toItemResponseDto(item, comments);
+        ItemResponseDto item = view.getOwnerId().equals(userId)
+                ? itemViewCache.getOwnerView(itemId, id -> ItemMapper.toItemResponseDto(view.getItem(),
+                        bookingTimeline.findByItemId(id, LocalDateTime.now())))
+                : view.getItem();
+
+        // Отзывы и ближайшие бронирования не меняют версию вещи, поэтому к ней добавляется хеш представления.
+        return new Versioned<>(item, ETags.of(view.getVersion(), Integer.toHexString(item.hashCode())));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemResponseDto> getItemsByUser(Long ownerId, Integer from, Integer size) {
 
-        Map<Long, Item> itemsMap = itemRepository.findAllItemsByOwnerId(ownerId, Pagination.withoutSort(from, size))
-                .stream()
-                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return joinComments(itemRepository.findAllItemsByOwnerId(ownerId, Pagination.withSort(from, size, ID_ASC)));
+    }
 
-        Map<Long, List<Comment>> commentsMap = commentRepository.findAllByItemIdIn(itemsMap.keySet())
-                .stream()
-                .collect(Collectors.groupingBy(Comment::getItemId));
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemResponseDto> getItemsByUser(Long ownerId, PageCursor after, Integer size) {
 
-        return itemsMap.values()
-                .stream()
-                .map(item -> addComments(item, commentsMap.getOrDefault(item.getId(), List.of())))
-                .collect(Collectors.toList());
+        log.info("Получен список вещей владельца с id {} после курсора {}", ownerId, after);
+
+        return joinComments(itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, after.getId(),
+                Pagination.keyset(size)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemShortDto> getItemsBySearchQuery(String query, Integer from, Integer size) {
 
-        List<ItemShortDto> foundItems = itemRepository.search(query, Pagination.withoutSort(from, size))
+        List<ItemShortDto> foundItems = itemSearchEngine.search(query, Pagination.withoutSort(from, size))
                 .stream()
                 .map(ItemMapper::toItemShortDto).collect(Collectors.toList());
 
@@ -126,42 +144,77 @@ public class ItemServiceImpl implements ItemService {
         return foundItems;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        Item item = idValidator.getItem(itemId);
+
+        if (!item.getAvailable()) {
+            log.info("Вещь с id {} не доступна для бронирования", itemId);
+            return List.of();
+        }
+
+        List<FreeWindowDto> windows = bookingCalendar.freeWindows(itemId, from, to);
+        log.info("Получено {} свободных окон вещи с id {}", windows.size(), itemId);
+
+        return windows;
+    }
+
     @Override
     public CommentDto createComment(Long itemId, Long userId, CommentShortDto commentDto) {
 
-        User user = checkUserId(userId);
-        if (!bookingRepository.existsByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now())) {
+        User user = idValidator.getUser(userId);
+        if (bookingRepository.findIdsByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now(),
+                Pagination.keyset(1)).isEmpty()) {
             throw new BookingException("Нельзя оставить комментарий");
         }
         Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, user, itemId));
+        itemViewCache.evict(itemId);
+        CommentDto created = CommentMapper.toCommentDto(comment);
+        outboxWriter.append(OutboxEvent.COMMENT, comment.getId(), OutboxEvent.COMMENT_CREATED, created);
         log.info("Получен комментарий от пользователя {}", userId);
 
-        return CommentMapper.toCommentDto(comment);
+        return created;
     }
 
-    private User checkUserId(Long userId) {
+    private ItemViewCache.ItemView loadItemView(Long itemId) {
 
-        return userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Пользователь с id %d не существует", userId)));
-    }
+        Item item = idValidator.getItem(itemId);
+        List<CommentDto> comments = commentRepository.findAllByItemId(itemId)
+                .stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
 
-    private Item checkItemId(Long itemId) {
-        return itemRepository.findById(itemId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Вещь с id %d не существует", itemId)));
+        return new ItemViewCache.ItemView(item.getOwner().getId(), item.getVersion(),
+                ItemMapper.toItemResponseDto(item, comments));
     }
 
-    private ItemResponseDto addComments(Item item, List<Comment> comments) {
+    private List<ItemResponseDto> joinComments(List<Item> items) {
 
-        List<CommentDto> commentList = comments
-                .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
+        Map<Long, Item> itemsMap = items
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
 
-        return ItemMapper.toItemResponseDto(item, commentList);
+        Map<Long, List<Comment>> commentsMap = commentRepository.findAllByItemIdIn(itemsMap.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(Comment::getItemId));
+
+        Map<Long, ItemTimelineDto> timelines = bookingTimeline.findByItemIds(itemsMap.keySet(), LocalDateTime.now());
+
+        return itemsMap.values()
+                .stream()
+                .map(item -> addComments(item, timelines.getOrDefault(item.getId(), ItemTimelineDto.EMPTY),
+                        commentsMap.getOrDefault(item.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
-    private ItemRequest checkRequestId(Long requestId) {
+    private ItemResponseDto addComments(Item item, ItemTimelineDto timeline, List<Comment> comments) {
+
+        List<CommentDto> commentList = comments
+                .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
 
-        return requestRepository.findById(requestId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Запрос с id %d не существует", requestId)));
+        return ItemMapper.toItemResponseDto(item, timeline, commentList);
     }
 
 }
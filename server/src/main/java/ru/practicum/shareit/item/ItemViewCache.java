@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class ItemViewCache {
+
+    private final Cache<Long, ItemView> views;
+
+    private final Cache<Long, ItemResponseDto> ownerViews;
+
+    public ItemViewCache(@Value("${shareit.cache.items.max-size:10000}") long maxSize,
+                         @Value("${shareit.cache.items.ttl:10m}") Duration ttl,
+                         @Value("${shareit.cache.items.owner-ttl:30s}") Duration ownerTtl,
+                         MeterRegistry meterRegistry) {
+
+        views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        ownerViews = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ownerTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "shareit.items");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerViews, "shareit.items.owner");
+    }
+
+    public ItemView getView(Long itemId, Function<Long, ItemView> loader) {
+
+        return views.get(itemId, loader);
+    }
+
+    public ItemResponseDto getOwnerView(Long itemId, Function<Long, ItemResponseDto> loader) {
+
+        return ownerViews.get(itemId, loader);
+    }
+
+    public void evict(Long itemId) {
+
+        afterCommit(() -> {
+            views.invalidate(itemId);
+            ownerViews.invalidate(itemId);
+        });
+    }
+
+    public void evictAll() {
+
+        afterCommit(() -> {
+            views.invalidateAll();
+            ownerViews.invalidateAll();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemView {
+
+        private final Long ownerId;
+
+        private final Long version;
+
+        private final ItemResponseDto item;
+    }
+}
@@ -0,0 +1,321 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.pagination.Pagination;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class MemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+
+    private static final int LOAD_BATCH = 1000;
+
+    private static final long ITEM_OVERHEAD_BYTES = 96;
+
+    private static final long POSTING_OVERHEAD_BYTES = 64;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // id, изменённые вживую во время начальной загрузки: их снимок из репозитория может быть старше.
+    private final Set<Long> updatedDuringLoad = new HashSet<>();
+
+    private volatile boolean ready;
+
+    private volatile long estimatedBytes;
+
+    public MemoryItemSearchEngine(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+
+        this.itemRepository = itemRepository;
+
+        meterRegistry.gauge("shareit.search.index.items", this, engine -> engine.size());
+        meterRegistry.gauge("shareit.search.index.bytes", this, engine -> engine.estimatedBytes);
+        meterRegistry.gauge("shareit.search.index.bytes.per.item", this,
+                engine -> (double) engine.estimatedBytes / Math.max(1, engine.size()));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        long lastId = 0;
+        List<Item> batch;
+
+        do {
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, Pagination.keyset(LOAD_BATCH));
+            lock.writeLock().lock();
+            try {
+                for (Item item : batch) {
+                    if (!updatedDuringLoad.contains(item.getId())) {
+                        put(item);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            updatedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс загружен: {} вещей, ~{} байт", size(), estimatedBytes);
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+
+        // Для коротких строк нет триграмм, а полный перебор под блокировкой задерживает обновления индекса.
+        if (!ready || text.length() < GRAM) {
+            return itemRepository.search(text, pageable);
+        }
+
+        String needle = text.toLowerCase();
+        long skip = pageable.getOffset();
+        List<Item> found = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(needle)) {
+                IndexedItem indexed = items.get(id);
+                if (!indexed.matches(needle)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                found.add(indexed.item);
+                if (found.size() == pageable.getPageSize()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public void index(Item item) {
+
+        Item snapshot = item.toBuilder().build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(snapshot);
+                }
+            });
+        } else {
+            replace(snapshot);
+        }
+    }
+
+    int size() {
+
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Item item) {
+
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                updatedDuringLoad.add(item.getId());
+            }
+            remove(item.getId());
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        IndexedItem indexed = new IndexedItem(item);
+        items.put(item.getId(), indexed);
+        estimatedBytes += indexed.bytes();
+
+        for (long gram : indexed.grams()) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(gram, list);
+                estimatedBytes += POSTING_OVERHEAD_BYTES + list.bytes();
+            }
+            long before = list.bytes();
+            list.add(item.getId());
+            estimatedBytes += list.bytes() - before;
+        }
+    }
+
+    private void remove(Long id) {
+
+        IndexedItem indexed = items.remove(id);
+
+        if (indexed == null) {
+            return;
+        }
+        estimatedBytes -= indexed.bytes();
+
+        for (long gram : indexed.grams()) {
+            Postings list = postings.get(gram);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(gram);
+                estimatedBytes -= POSTING_OVERHEAD_BYTES + list.bytes();
+            }
+        }
+    }
+
+    private Iterable<Long> candidates(String needle) {
+
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(needle)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        Postings smallest = lists.get(0);
+        List<Long> result = new ArrayList<>();
+
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static Set<Long> grams(String text) {
+
+        Set<Long> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static class IndexedItem {
+
+        private final Item item;
+
+        private final String name;
+
+        private final String description;
+
+        IndexedItem(Item item) {
+            this.item = item;
+            this.name = item.getName() == null ? "" : item.getName().toLowerCase();
+            this.description = item.getDescription() == null ? "" : item.getDescription().toLowerCase();
+        }
+
+        boolean matches(String needle) {
+
+            return name.contains(needle) || description.contains(needle);
+        }
+
+        Set<Long> grams() {
+
+            Set<Long> grams = MemoryItemSearchEngine.grams(name);
+            grams.addAll(MemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+
+        long bytes() {
+
+            return ITEM_OVERHEAD_BYTES + 2L * (name.length() + description.length());
+        }
+    }
+
+    private static class Postings {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        void add(long id) {
+
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        boolean contains(long id) {
+
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long bytes() {
+
+            return 8L * ids.length;
+        }
+    }
+}
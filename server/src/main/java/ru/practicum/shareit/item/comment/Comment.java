@@ -4,6 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.changes.ChangeSequenceListener;
+import ru.practicum.shareit.changes.ChangeTracked;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -14,11 +19,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(ChangeSequenceListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.COMMENTS)
+@NamedEntityGraph(name = "Comment.author", attributeNodes = @NamedAttributeNode("author"))
 @Table(name = "comments")
-public class Comment {
+public class Comment implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -28,11 +37,14 @@ public class Comment {
     @Column(name = "item_id", nullable = false)
     private Long itemId;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
 
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
 }
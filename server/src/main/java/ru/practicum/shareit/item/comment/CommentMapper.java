@@ -25,6 +25,7 @@ public class CommentMapper {
         return CommentDto.builder()
                 .id(comment.getId())
                 .text(comment.getText())
+                .itemId(comment.getItemId())
                 .authorName(comment.getAuthor().getName())
                 .created(comment.getCreated())
                 .build();
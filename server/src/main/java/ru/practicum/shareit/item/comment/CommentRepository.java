@@ -1,14 +1,38 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
 
-
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Set;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    String CHANGES = " and c.changeSeq > :since and c.changeSeq <= :until order by c.changeSeq";
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION,
+                    value = HibernateCacheConfig.COMMENTS_BY_ITEM)
+    })
+    @EntityGraph("Comment.author")
     List<Comment> findAllByItemId(Long item);
 
+    @EntityGraph("Comment.author")
     Set<Comment> findAllByItemIdIn(Set<Long> itemId);
-}
\ No newline at end of file
+
+    @Query("select c from Comment c join fetch c.author a where a.id = :userId " + CHANGES)
+    List<Comment> findChangesByAuthorId(@Param("userId") Long authorId, @Param("since") long since,
+                                        @Param("until") long until, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.author " +
+            " where c.itemId in (select i.id from Item i where i.owner.id = :userId) " + CHANGES)
+    List<Comment> findChangesByItemOwnerId(@Param("userId") Long ownerId, @Param("since") long since,
+                                           @Param("until") long until, Pageable pageable);
+}
@@ -15,6 +15,7 @@ public class CommentDto {
 
     private Long id;
     private String text;
+    private Long itemId;
     private String authorName;
     private LocalDateTime created;
 
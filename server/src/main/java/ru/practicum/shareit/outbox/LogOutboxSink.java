@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sinks.log", havingValue = "true", matchIfMissing = true)
+public class LogOutboxSink implements OutboxSink {
+
+    // Отдельный логгер, чтобы события можно было направить в свой файл настройками logging.*.
+    private static final Logger EVENTS = LoggerFactory.getLogger("shareit.outbox");
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            EVENTS.info("{} {} {} {} {}", event.getId(), event.getEventType(), event.getAggregateType(),
+                    event.getAggregateId(), event.getPayload());
+        }
+    }
+}
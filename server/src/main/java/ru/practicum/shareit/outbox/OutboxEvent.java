@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String ITEM = "ITEM";
+    public static final String COMMENT = "COMMENT";
+
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_APPROVED = "BOOKING_APPROVED";
+    public static final String BOOKING_REJECTED = "BOOKING_REJECTED";
+    public static final String ITEM_CREATED = "ITEM_CREATED";
+    public static final String ITEM_UPDATED = "ITEM_UPDATED";
+    public static final String COMMENT_CREATED = "COMMENT_CREATED";
+
+    private Long id;
+
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    private String eventType;
+
+    private String payload;
+
+    private LocalDateTime created;
+}
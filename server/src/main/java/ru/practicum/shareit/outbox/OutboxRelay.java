@@ -0,0 +1,81 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final String SELECT = "select id, aggregate_type, aggregate_id, event_type, payload, created " +
+            " from outbox order by id limit ? ";
+
+    private static final String DELETE = "delete from outbox where id = ?";
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+            .id(rs.getLong("id"))
+            .aggregateType(rs.getString("aggregate_type"))
+            .aggregateId(rs.getLong("aggregate_id"))
+            .eventType(rs.getString("event_type"))
+            .payload(rs.getString("payload"))
+            .created(rs.getTimestamp("created").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final String select;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<OutboxSink> sinks,
+                       @Value("${shareit.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${shareit.outbox.relay.lock:for update skip locked}") String lock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.select = SELECT + lock;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.outbox.relay.interval:PT1S}",
+            fixedDelayString = "${shareit.outbox.relay.interval:PT1S}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = drain();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось передать события outbox, повтор при следующем запуске: {}", e.getMessage());
+        }
+    }
+
+    // Строки блокируются до конца транзакции: параллельные экземпляры пропускают их и берут следующую пачку.
+    // Если приёмник упал, транзакция откатывается и пачка уходит повторно, поэтому доставка «хотя бы один раз».
+    public int drain() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = jdbcTemplate.query(select, EVENT_MAPPER, batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            for (OutboxSink sink : sinks) {
+                sink.publish(events);
+            }
+            jdbcTemplate.batchUpdate(DELETE, events.stream()
+                    .map(event -> new Object[]{event.getId()})
+                    .collect(Collectors.toList()));
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+}
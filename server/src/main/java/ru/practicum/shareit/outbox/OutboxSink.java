@@ -0,0 +1,8 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
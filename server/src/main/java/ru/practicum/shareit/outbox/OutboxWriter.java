@@ -0,0 +1,63 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private static final String INSERT = "insert into outbox (aggregate_type, aggregate_id, event_type, payload, created) " +
+            " values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Событие пишется только вместе с изменением, которое оно описывает, поэтому транзакция обязательна.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+
+        appendAll(aggregateType, eventType, List.of(new Change(aggregateId, payload)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String aggregateType, String eventType, List<Change> changes) {
+
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = changes.stream()
+                .map(change -> new Object[]{aggregateType, change.getAggregateId(), eventType,
+                        toJson(change.getPayload()), created})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @Value
+    public static class Change {
+
+        Long aggregateId;
+
+        Object payload;
+    }
+}
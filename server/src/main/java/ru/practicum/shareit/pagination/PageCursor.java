@@ -0,0 +1,82 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime key;
+
+    private final Long id;
+
+    private PageCursor(LocalDateTime key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime key, Long id) {
+
+        return new PageCursor(key, id);
+    }
+
+    public static PageCursor decode(String token) {
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            if (separator < 0) {
+                throw new PaginationException(String.format("Некорректный курсор страницы: %s", token));
+            }
+
+            String key = raw.substring(0, separator);
+            Long id = Long.parseLong(raw.substring(separator + 1));
+
+            return new PageCursor(key.isEmpty() ? null : LocalDateTime.parse(key), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginationException(String.format("Некорректный курсор страницы: %s", token));
+        }
+    }
+
+    public String encode() {
+
+        String raw = (key == null ? "" : key.toString()) + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime requireKey() {
+
+        if (key == null) {
+            throw new PaginationException("Курсор страницы не подходит для этого списка");
+        }
+        return key;
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, Integer size, Function<T, PageCursor> cursor) {
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (!page.isEmpty() && page.size() >= size) {
+            response.header(NEXT_CURSOR_HEADER, cursor.apply(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
+    }
+}
@@ -17,4 +17,9 @@ public class Pagination {
 
         return PageRequest.of(from / size, size, sort);
     }
+
+    public static Pageable keyset(Integer size) {
+
+        return PageRequest.of(0, size);
+    }
 }
@@ -4,6 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.changes.ChangeSequenceListener;
+import ru.practicum.shareit.changes.ChangeTracked;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -15,19 +20,25 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Table(name = "item_requests")
 @Entity
-public class ItemRequest {
+@EntityListeners(ChangeSequenceListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEM_REQUESTS)
+public class ItemRequest implements ChangeTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description", nullable = false)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id")
     private User requestor;
 
     @Column(name = "created")
     private LocalDateTime created;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
 }
@@ -2,8 +2,11 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -18,36 +21,51 @@ public class ItemRequestController {
 
     private final RequestService requestService;
 
+    private final IdempotencyStore idempotencyStore;
+
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ItemRequestResponseDto createItemRequest(@RequestHeader(USER_HEADER) Long userId,
-                                                    @RequestBody ItemRequestDto requestDto) {
+    public ResponseEntity<Object> createItemRequest(@RequestHeader(USER_HEADER) Long userId,
+                                                    @RequestBody ItemRequestDto requestDto,
+                                                    @RequestHeader(value = IdempotencyStore.HEADER,
+                                                            required = false) String idempotencyKey) {
 
         log.info("POST-запрос: '/requests' на создание запроса пользователем с id={}", userId);
 
-        return requestService.createRequest(userId, requestDto);
+        return idempotencyStore.execute(userId, idempotencyKey, "POST /requests", requestDto,
+                () -> requestService.createRequest(userId, requestDto));
     }
 
     @GetMapping
-    public List<ItemRequestResponseDto> getRequests(@RequestHeader(USER_HEADER) Long userId,
+    public ResponseEntity<List<ItemRequestResponseDto>> getRequests(@RequestHeader(USER_HEADER) Long userId,
                                                     @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                    @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                    @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/requests' на получение запросов пользователем с id={}", userId);
 
-        return requestService.getRequestsByOwner(userId, from, size);
+        List<ItemRequestResponseDto> requests = after == null
+                ? requestService.getRequestsByOwner(userId, from, size)
+                : requestService.getRequestsByOwner(userId, PageCursor.decode(after), size);
+
+        return PageCursor.toResponse(requests, size, r -> PageCursor.of(r.getCreated(), r.getId()));
     }
 
     @GetMapping("/all")
-    public List<ItemRequestResponseDto> getAllRequests(@RequestHeader(USER_HEADER) Long userId,
+    public ResponseEntity<List<ItemRequestResponseDto>> getAllRequests(@RequestHeader(USER_HEADER) Long userId,
                                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                       @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                       @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                       @RequestParam(name = "after", required = false) String after) {
 
         log.info("GET-запрос: '/requests/all' на получение всех запросов " +
                 "пользователем с id={} по {} запросов на странице", userId, size);
 
-        return requestService.getAllRequests(userId, from, size);
+        List<ItemRequestResponseDto> requests = after == null
+                ? requestService.getAllRequests(userId, from, size)
+                : requestService.getAllRequests(userId, PageCursor.decode(after), size);
+
+        return PageCursor.toResponse(requests, size, r -> PageCursor.of(r.getCreated(), r.getId()));
     }
 
     @GetMapping("/{requestId}")
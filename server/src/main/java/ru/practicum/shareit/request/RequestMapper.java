@@ -21,7 +21,7 @@ public class RequestMapper {
                 .build();
     }
 
-    ItemRequestResponseDto toItemRequestResponseDto(ItemRequest request, List<ItemForRequestDto> items) {
+    public ItemRequestResponseDto toItemRequestResponseDto(ItemRequest request, List<ItemForRequestDto> items) {
 
         return ItemRequestResponseDto.builder()
                 .id(request.getId())
@@ -3,12 +3,36 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequestorId(Long requesterId, Pageable pageable);
+    String AFTER_CURSOR = " and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            " order by r.created desc, r.id desc";
 
-    List<ItemRequest> findAllByRequestorIdNot(Long requesterId, Pageable pageable);
+    String CHANGES = " and r.changeSeq > :since and r.changeSeq <= :until order by r.changeSeq";
+
+    @Query("select r from ItemRequest r where r.requestor.id = :requesterId")
+    List<ItemRequest> findAllByRequestorId(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id <> :requesterId")
+    List<ItemRequest> findAllByRequestorIdNot(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id = :requesterId " + AFTER_CURSOR)
+    List<ItemRequest> findNextByRequestorId(@Param("requesterId") Long requesterId,
+                                            @Param("created") LocalDateTime created,
+                                            @Param("id") Long id, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id <> :requesterId " + AFTER_CURSOR)
+    List<ItemRequest> findNextByRequestorIdNot(@Param("requesterId") Long requesterId,
+                                               @Param("created") LocalDateTime created,
+                                               @Param("id") Long id, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id = :userId " + CHANGES)
+    List<ItemRequest> findChangesByRequestorId(@Param("userId") Long requestorId, @Param("since") long since,
+                                               @Param("until") long until, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
@@ -13,6 +14,10 @@ public interface RequestService {
 
     List<ItemRequestResponseDto> getAllRequests(Long userId, Integer from, Integer size);
 
+    List<ItemRequestResponseDto> getRequestsByOwner(Long ownerId, PageCursor after, Integer size);
+
+    List<ItemRequestResponseDto> getAllRequests(Long userId, PageCursor after, Integer size);
+
     ItemRequestResponseDto getRequestsById(Long userId, Long requestId);
 
 }
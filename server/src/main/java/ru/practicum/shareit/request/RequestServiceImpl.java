@@ -5,18 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,16 +27,17 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final IdValidator idValidator;
 
-    private static final Sort CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
+    private static final Sort CREATED_DESC = Sort.by(Sort.Direction.DESC, "created", "id");
 
     @Override
     public ItemRequestResponseDto createRequest(Long userId, ItemRequestDto requestDto) {
 
-        User user = checkUserId(userId);
+        User user = idValidator.getUserReference(userId);
         ItemRequest requestDtoResponse = requestRepository.save(RequestMapper.toItemRequest(requestDto, user));
+        idValidator.requestCreated(requestDtoResponse.getId());
         log.info("Пользователь {} создал запрос {}", userId, requestDtoResponse.getId());
 
         return RequestMapper.toItemRequestResponseDto(requestDtoResponse, List.of());
@@ -45,7 +47,7 @@ public class RequestServiceImpl implements RequestService {
     @Transactional(readOnly = true)
     public List<ItemRequestResponseDto> getRequestsByOwner(Long ownerId, Integer from, Integer size) {
 
-        checkUserId(ownerId);
+        idValidator.checkUser(ownerId);
 
         List<ItemRequest> itemRequests = requestRepository.findAllByRequestorId(ownerId,
                 Pagination.withSort(from, size, CREATED_DESC));
@@ -59,7 +61,7 @@ public class RequestServiceImpl implements RequestService {
     @Transactional(readOnly = true)
     public List<ItemRequestResponseDto> getAllRequests(Long userId, Integer from, Integer size) {
 
-        checkUserId(userId);
+        idValidator.checkUser(userId);
 
         List<ItemRequest> itemRequests = requestRepository.findAllByRequestorIdNot(userId,
                 Pagination.withSort(from, size, CREATED_DESC));
@@ -69,12 +71,44 @@ public class RequestServiceImpl implements RequestService {
         return itemsRequest;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestResponseDto> getRequestsByOwner(Long ownerId, PageCursor after, Integer size) {
+
+        LocalDateTime created = after.requireKey();
+        idValidator.checkUser(ownerId);
+
+        List<ItemRequest> itemRequests = requestRepository.findNextByRequestorId(ownerId, created, after.getId(),
+                Pagination.keyset(size));
+        List<ItemRequestResponseDto> itemsRequest = joinItemsToItemRequest(itemRequests);
+        log.info("Пользователь {} получил список своих запросов из {} элементов после курсора {}",
+                ownerId, itemsRequest.size(), after);
+
+        return itemsRequest;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestResponseDto> getAllRequests(Long userId, PageCursor after, Integer size) {
+
+        LocalDateTime created = after.requireKey();
+        idValidator.checkUser(userId);
+
+        List<ItemRequest> itemRequests = requestRepository.findNextByRequestorIdNot(userId, created, after.getId(),
+                Pagination.keyset(size));
+        List<ItemRequestResponseDto> itemsRequest = joinItemsToItemRequest(itemRequests);
+        log.info("Пользователь {} получил список всех запросов из {} элементов после курсора {}",
+                userId, itemsRequest.size(), after);
+
+        return itemsRequest;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ItemRequestResponseDto getRequestsById(Long userId, Long requestId) {
 
-        checkUserId(userId);
-        ItemRequest reqItem = checkRequestId(requestId);
+        idValidator.checkUser(userId);
+        ItemRequest reqItem = idValidator.getRequest(requestId);
         List<ItemForRequestDto> items = itemRepository.findAllByRequestId(requestId);
 
         log.info("Пользователь {} получил запрос с id {}", userId, requestId);
@@ -82,27 +116,18 @@ public class RequestServiceImpl implements RequestService {
     }
 
     private List<ItemRequestResponseDto> joinItemsToItemRequest(List<ItemRequest> itemRequests) {
-        Map<Long, ItemRequest> requests = itemRequests
+        Set<Long> requestIds = itemRequests
                 .stream()
-                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
 
-        Map<Long, List<ItemForRequestDto>> items = itemRepository.findAllByRequestIdIn(requests.keySet())
+        Map<Long, List<ItemForRequestDto>> items = itemRepository.findAllByRequestIdIn(requestIds)
                 .stream()
                 .collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
 
-        return requests.values()
+        return itemRequests
                 .stream()
                 .map(i -> RequestMapper.toItemRequestResponseDto(i, items.getOrDefault(i.getId(), List.of())))
                 .collect(Collectors.toList());
     }
-
-    private User checkUserId(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Пользователь с id %d не существует", userId)));
-    }
-
-    private ItemRequest checkRequestId(Long requestId) {
-        return requestRepository.findById(requestId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Запрос с id %d не существует", requestId)));
-    }
 }
@@ -2,10 +2,13 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import ru.practicum.shareit.bulk.ImportReport;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
@@ -16,6 +19,8 @@ public class UserController {
 
     private final UserService userService;
 
+    private final UserImporter userImporter;
+
     @PostMapping
     public UserDto createUser(@RequestBody UserDto user) {
 
@@ -24,6 +29,14 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importUsers(InputStream body) {
+
+        log.info("POST-запрос: '/users/import' на импорт пользователей");
+
+        return userImporter.importUsers(body);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable Long userId,
                               @RequestBody UserDto user) {
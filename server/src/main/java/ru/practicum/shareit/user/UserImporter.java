@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.bulk.BulkImport;
+import ru.practicum.shareit.bulk.ImportReport;
+import ru.practicum.shareit.bulk.ImportRow;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImporter {
+
+    private static final String INSERT = "insert into users (id, name, email) values (?, ?, ?)";
+
+    private final BulkImport bulkImport;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final IdValidator idValidator;
+
+    public ImportReport importUsers(InputStream body) {
+
+        ImportReport report = bulkImport.read(body, UserDto.class, this::writeChunk);
+        log.info("Импортировано {} пользователей из {}, ошибок {}", report.getImported(), report.getTotal(),
+                report.getFailed());
+        return report;
+    }
+
+    private void writeChunk(List<ImportRow<UserDto>> rows, ImportReport report) {
+
+        Set<String> taken = existingEmails(rows);
+        List<ImportRow<UserDto>> accepted = new ArrayList<>(rows.size());
+        for (ImportRow<UserDto> row : rows) {
+            if (!taken.add(row.getValue().getEmail())) {
+                report.rejected(row.getRow(), String.format("Пользователь с email %s уже существует",
+                        row.getValue().getEmail()));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        List<Long> ids = bulkImport.allocateIds("users_seq", accepted.size());
+        List<ImportRow<User>> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            User user = UserMapper.toUser(accepted.get(i).getValue());
+            user.setId(ids.get(i));
+            users.add(accepted.get(i).with(user));
+        }
+
+        for (ImportRow<User> row : bulkImport.insert(INSERT, users, UserImporter::toArguments, report)) {
+            idValidator.userCreated(row.getValue().getId());
+        }
+    }
+
+    private Set<String> existingEmails(List<ImportRow<UserDto>> rows) {
+
+        Set<String> emails = rows.stream()
+                .map(row -> row.getValue().getEmail())
+                .collect(Collectors.toSet());
+        return new HashSet<>(jdbcTemplate.queryForList("select email from users where email in (:emails)",
+                Map.of("emails", emails), String.class));
+    }
+
+    private static Object[] toArguments(User user) {
+        return new Object[]{user.getId(), user.getName(), user.getEmail()};
+    }
+}
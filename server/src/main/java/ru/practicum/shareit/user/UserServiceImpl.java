@@ -4,8 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.IdValidator;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,11 +18,14 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemViewCache itemViewCache;
+    private final IdValidator idValidator;
 
     @Override
     public UserDto createUser(UserDto userDto) {
 
         User createdUser = userRepository.save(UserMapper.toUser(userDto));
+        idValidator.userCreated(createdUser.getId());
         log.info("Создан пользователь {}", createdUser);
 
         return UserMapper.toUserDto(createdUser);
@@ -29,10 +33,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto updateUserById(Long userId, UserDto user) {
-        User expectedUser = checkUserId(userId);
+        User expectedUser = idValidator.getUser(userId);
 
         if (user.getName() != null  && !user.getName().isBlank()) {
             expectedUser.setName(user.getName());
+            itemViewCache.evictAll();
         }
         if (user.getEmail() != null && !user.getEmail().isBlank()) {
             expectedUser.setEmail(user.getEmail());
@@ -48,7 +53,7 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
 
-        User findedUser = checkUserId(userId);
+        User findedUser = idValidator.getUser(userId);
 
         log.info("Получен пользователь с id {}", userId);
 
@@ -72,17 +77,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUserById(Long userId) {
 
-        checkUserId(userId);
+        idValidator.checkUser(userId);
 
         userRepository.deleteById(userId);
+        idValidator.userDeleted(userId);
 
         log.info("Удален пользователь с id {}", userId);
     }
 
-    private User checkUserId(Long userId) {
-
-        return userRepository.findById(userId).orElseThrow(() ->
-                new EntityNotFoundException(String.format("Пользователь с id %d не существует", userId)));
-    }
-
 }
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class IdValidator {
+
+    private static final String USER_NOT_FOUND = "Пользователь с id %d не существует";
+
+    private static final String ITEM_NOT_FOUND = "Вещь с id %d не существует";
+
+    private static final String REQUEST_NOT_FOUND = "Запрос с id %d не существует";
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+
+    private final KnownIds users;
+    private final KnownIds items;
+    private final KnownIds requests;
+
+    public IdValidator(UserRepository userRepository, ItemRepository itemRepository,
+                       RequestRepository requestRepository,
+                       @Value("${shareit.cache.ids.capacity:65536}") int capacity,
+                       @Value("${shareit.cache.ids.ttl:60s}") Duration ttl,
+                       @Value("${shareit.cache.ids.negative-ttl:5s}") Duration negativeTtl) {
+
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.users = new KnownIds(capacity, ttl, negativeTtl);
+        this.items = new KnownIds(capacity, ttl, negativeTtl);
+        this.requests = new KnownIds(capacity, ttl, negativeTtl);
+    }
+
+    public void checkUser(Long userId) {
+
+        users.check(userId, userRepository::existsById, USER_NOT_FOUND);
+    }
+
+    public User getUser(Long userId) {
+
+        return users.load(userId, userRepository::findById, USER_NOT_FOUND);
+    }
+
+    public User getUserReference(Long userId) {
+
+        checkUser(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void checkItem(Long itemId) {
+
+        items.check(itemId, itemRepository::existsById, ITEM_NOT_FOUND);
+    }
+
+    public Item getItem(Long itemId) {
+
+        return items.load(itemId, itemRepository::findById, ITEM_NOT_FOUND);
+    }
+
+    public void checkRequest(Long requestId) {
+
+        requests.check(requestId, requestRepository::existsById, REQUEST_NOT_FOUND);
+    }
+
+    public ItemRequest getRequest(Long requestId) {
+
+        return requests.load(requestId, requestRepository::findById, REQUEST_NOT_FOUND);
+    }
+
+    public void userCreated(Long userId) {
+
+        users.created(userId);
+    }
+
+    public void userDeleted(Long userId) {
+
+        users.deleted(userId);
+    }
+
+    public void itemCreated(Long itemId) {
+
+        items.created(itemId);
+    }
+
+    public void requestCreated(Long requestId) {
+
+        requests.created(requestId);
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class KnownIds {
+
+        private final LongIdCache present;
+
+        private final LongIdCache missing;
+
+        KnownIds(int capacity, Duration ttl, Duration negativeTtl) {
+            this.present = new LongIdCache(capacity, ttl);
+            this.missing = new LongIdCache(capacity, negativeTtl);
+        }
+
+        void check(Long id, Function<Long, Boolean> exists, String message) {
+
+            if (present.contains(id)) {
+                return;
+            }
+            if (missing.contains(id) || !exists.apply(id)) {
+                missing.add(id);
+                throw notFound(message, id);
+            }
+            present.add(id);
+        }
+
+        <T> T load(Long id, Function<Long, Optional<T>> finder, String message) {
+
+            if (missing.contains(id)) {
+                throw notFound(message, id);
+            }
+            Optional<T> entity = finder.apply(id);
+            if (entity.isEmpty()) {
+                missing.add(id);
+                throw notFound(message, id);
+            }
+            present.add(id);
+            return entity.get();
+        }
+
+        void created(Long id) {
+
+            if (id == null) {
+                return;
+            }
+            missing.remove(id);
+            afterCommit(() -> {
+                missing.remove(id);
+                present.add(id);
+            });
+        }
+
+        void deleted(Long id) {
+
+            if (id == null) {
+                return;
+            }
+            present.remove(id);
+            afterCommit(() -> {
+                present.remove(id);
+                missing.add(id);
+            });
+        }
+
+        private static EntityNotFoundException notFound(String message, Long id) {
+            return new EntityNotFoundException(String.format(message, id));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.validation;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LongIdCache {
+
+    private final AtomicLongArray ids;
+
+    private final AtomicLongArray expiresAt;
+
+    private final int mask;
+
+    private final long ttlNanos;
+
+    public LongIdCache(int capacity, Duration ttl) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ids = new AtomicLongArray(size);
+        this.expiresAt = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean contains(long id) {
+        int slot = slot(id);
+        return id > 0 && ids.get(slot) == id && expiresAt.get(slot) - System.nanoTime() > 0;
+    }
+
+    public void add(long id) {
+        if (id <= 0) {
+            return;
+        }
+        int slot = slot(id);
+        expiresAt.set(slot, System.nanoTime() + ttlNanos);
+        ids.set(slot, id);
+    }
+
+    public void remove(long id) {
+        int slot = slot(id);
+        ids.compareAndSet(slot, id, 0);
+    }
+
+    public int capacity() {
+        return ids.length();
+    }
+
+    private int slot(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
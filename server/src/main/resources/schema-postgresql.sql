@@ -0,0 +1,51 @@
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM users), (SELECT last_value FROM users_seq)));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM items), (SELECT last_value FROM items_seq)));
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), (SELECT last_value FROM bookings_seq)));
+
+ALTER TABLE item_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE item_requests ALTER COLUMN id SET DEFAULT nextval('item_requests_seq');
+
+SELECT setval('item_requests_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM item_requests), (SELECT last_value FROM item_requests_seq)));
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 1 FROM comments), (SELECT last_value FROM comments_seq)));
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING GIN (search_vector) WHERE available;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_booker_rejected_idx ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS bookings_item_approved_idx ON bookings (item_id, start_date, end_date)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS bookings_item_active_end_idx ON bookings (item_id, end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
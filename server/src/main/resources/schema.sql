@@ -1,13 +1,27 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 1;
+
+CREATE SEQUENCE IF NOT EXISTS change_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
     name            VARCHAR(255) NOT NULL,
     email           VARCHAR(255) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
     name            VARCHAR(255) NOT NULL,
     description     VARCHAR(300) NOT NULL,
     available       boolean NOT NULL,
@@ -17,7 +31,7 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
     start_date      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id         BIGINT REFERENCES items(id) NOT NULL,
@@ -27,7 +41,7 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS item_requests
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT DEFAULT nextval('item_requests_seq') PRIMARY KEY,
     description     VARCHAR(512) NOT NULL,
     requestor_id    BIGINT REFERENCES users(id),
     created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
@@ -36,9 +50,71 @@ CREATE TABLE IF NOT EXISTS item_requests
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
     text            VARCHAR(512) NOT NULL,
     item_id         BIGINT REFERENCES items(id) NOT NULL,
     author_id       BIGINT REFERENCES users(id) NOT NULL,
     created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id              BIGINT DEFAULT nextval('outbox_seq') PRIMARY KEY,
+    aggregate_type  VARCHAR(32) NOT NULL,
+    aggregate_id    BIGINT NOT NULL,
+    event_type      VARCHAR(64) NOT NULL,
+    payload         VARCHAR(4096) NOT NULL,
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    user_id         BIGINT NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64) NOT NULL,
+    response        VARCHAR(4096),
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT nextval('change_seq') NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT nextval('change_seq') NOT NULL;
+
+ALTER TABLE item_requests ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT nextval('change_seq') NOT NULL;
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT nextval('change_seq') NOT NULL;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS item_requests_requestor_created_idx ON item_requests (requestor_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS item_requests_created_idx ON item_requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_change_idx ON bookings (booker_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS bookings_item_change_idx ON bookings (item_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS items_owner_change_idx ON items (owner_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS items_request_change_idx ON items (request_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS comments_author_change_idx ON comments (author_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS comments_item_change_idx ON comments (item_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS item_requests_requestor_change_idx ON item_requests (requestor_id, change_seq);
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_created_idx ON idempotency_keys (created);
@@ -0,0 +1,311 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.pagination.Pagination;
+import ru.practicum.shareit.request.RequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$SqlCapture")
+@Import({HibernateCacheConfig.class, ChangeSequence.class})
+public class QueryPlanTest {
+
+    private static final String BOOKER = "BOOKER_ID = ?";
+
+    private static final String OWNER = "OWNER_ID = ?";
+
+    private static final String BOOKING_ITEM = "ITEM_ID = ITEM1_.ID";
+
+    private static final String ITEM_ID = "ITEM_ID = ?";
+
+    private static final String ITEM_ID_IN = "ITEM_ID IN(?";
+
+    private static final String ID_GREATER = "ID > ?";
+
+    private static final String REQUEST_ID = "REQUEST_ID = ?";
+
+    private static final String REQUEST_ID_IN = "REQUEST_ID IN(?";
+
+    private static final String REQUESTOR = "REQUESTOR_ID = ?";
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    RequestRepository requestRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    private static boolean seeded;
+
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0, 0);
+
+    private final Sort startDesc = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private final Sort createdDesc = Sort.by(Sort.Direction.DESC, "created", "id");
+
+    @BeforeEach
+    void startUp() throws SQLException {
+
+        SqlCapture.STATEMENTS.clear();
+
+        if (seeded) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, name, email) SELECT X, 'user' || X, 'user' || X || '@mail.ru' "
+                    + "FROM SYSTEM_RANGE(1, 200)");
+            statement.execute("INSERT INTO item_requests (id, description, requestor_id, created) "
+                    + "SELECT X, 'request' || X, MOD(X, 200) + 1, DATEADD(MINUTE, X, TIMESTAMP '2023-01-01 00:00:00') "
+                    + "FROM SYSTEM_RANGE(1, 2000)");
+            statement.execute("INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                    + "SELECT X, 'item' || X, 'item' || X, TRUE, MOD(X, 200) + 1, MOD(X, 2000) + 1 "
+                    + "FROM SYSTEM_RANGE(1, 2000)");
+            statement.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                    + "SELECT X, DATEADD(MINUTE, X, TIMESTAMP '2023-01-01 00:00:00'), "
+                    + "DATEADD(MINUTE, X + 60, TIMESTAMP '2023-01-01 00:00:00'), "
+                    + "MOD(X, 2000) + 1, MOD(X * 7, 200) + 1, CASEWHEN(MOD(X, 3) = 0, 'WAITING', 'APPROVED') "
+                    + "FROM SYSTEM_RANGE(1, 20000)");
+            statement.execute("INSERT INTO comments (id, text, item_id, author_id, created) "
+                    + "SELECT X, 'comment' || X, MOD(X, 2000) + 1, MOD(X, 200) + 1, TIMESTAMP '2023-01-01 00:00:00' "
+                    + "FROM SYSTEM_RANGE(1, 5000)");
+            for (String table : List.of("users", "item_requests", "items", "bookings", "comments")) {
+                statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH 100001");
+            }
+            statement.execute("ANALYZE");
+        }
+        seeded = true;
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookerQueries_seekByBooker() {
+
+        bookingRepository.findAllByBookerId(1L, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findCurrentByBookerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findPastByBookerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findFutureByBookerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findAllByBookerIdAndStatus(1L, BookingStatus.WAITING,
+                Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findNextByBookerId(1L, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findNextCurrentByBookerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findNextPastByBookerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findNextFutureByBookerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(BOOKER);
+
+        bookingRepository.findNextByBookerIdAndStatus(1L, BookingStatus.REJECTED, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(BOOKER);
+    }
+
+    @Test
+    void ownerQueries_seekByOwnerThenByItem() {
+
+        bookingRepository.findAllByItemOwnerId(1L, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findCurrentByItemOwnerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findPastByItemOwnerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findFutureByItemOwnerId(1L, now, Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findAllByItemOwnerIdAndStatus(1L, BookingStatus.WAITING,
+                Pagination.withSort(0, 10, startDesc));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findNextByItemOwnerId(1L, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findNextCurrentByItemOwnerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findNextPastByItemOwnerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findNextFutureByItemOwnerId(1L, now, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+
+        bookingRepository.findNextByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, now, 1L,
+                Pagination.keyset(10));
+        assertPlanSeeks(OWNER, BOOKING_ITEM);
+    }
+
+    @Test
+    void itemBookingQueries_seekByItem() {
+
+        bookingRepository.findIdsByItemIdAndBookerIdAndEndBefore(1L, 1L, now, Pagination.keyset(1));
+        assertStopsAtFirstRow();
+        assertPlanSeeksAny(ITEM_ID, BOOKER);
+
+        bookingRepository.findAllByItemIdAndStatusInAndEndAfter(1L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        assertPlanSeeks(ITEM_ID);
+
+        bookingRepository.findTimelineByItemIdIn(List.of(1L, 2L), now);
+        assertPlanSeeks(ITEM_ID_IN);
+    }
+
+    @Test
+    void itemAndCommentQueries_seekByForeignKeys() {
+
+        itemRepository.findAllItemsByOwnerId(1L, Pagination.withSort(0, 10, Sort.by("id")));
+        assertPlanSeeks(OWNER);
+
+        itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(1L, 1L, Pagination.keyset(10));
+        assertPlanSeeks(OWNER);
+
+        itemRepository.findAllByIdGreaterThanOrderByIdAsc(1L, Pagination.keyset(10));
+        assertPlanSeeks(ID_GREATER);
+
+        itemRepository.findAllByRequestIdIn(Set.of(1L, 2L));
+        assertPlanSeeks(REQUEST_ID_IN);
+
+        itemRepository.findAllByRequestId(1L);
+        assertPlanSeeks(REQUEST_ID);
+
+        commentRepository.findAllByItemId(1L);
+        assertPlanSeeks(ITEM_ID);
+
+        commentRepository.findAllByItemIdIn(Set.of(1L, 2L));
+        assertPlanSeeks(ITEM_ID_IN);
+    }
+
+    @Test
+    void requestQueries_seekByRequestorOrReadCreatedOrder() {
+
+        requestRepository.findAllByRequestorId(1L, Pagination.withSort(0, 10, createdDesc));
+        assertPlanSeeks(REQUESTOR);
+
+        requestRepository.findNextByRequestorId(1L, now, 1L, Pagination.keyset(10));
+        assertPlanSeeks(REQUESTOR);
+
+        requestRepository.findAllByRequestorIdNot(1L, Pagination.withSort(0, 10, createdDesc));
+        assertPlanReadsInIndexOrder("ITEM_REQUESTS_CREATED_IDX");
+
+        requestRepository.findNextByRequestorIdNot(1L, now, 1L, Pagination.keyset(10));
+        assertPlanReadsInIndexOrder("ITEM_REQUESTS_CREATED_IDX");
+    }
+
+    private void assertPlanSeeks(String... conditions) {
+
+        String plan = explainFirstStatement();
+
+        assertFalse(plan.contains(".tableScan"), () -> "Полный просмотр таблицы:\n" + plan);
+        for (String condition : conditions) {
+            assertTrue(seeks(plan, condition), () -> "Нет поиска по индексу '" + condition + "' в плане:\n" + plan);
+        }
+    }
+
+    private void assertPlanSeeksAny(String... conditions) {
+
+        String plan = explainFirstStatement();
+
+        assertFalse(plan.contains(".tableScan"), () -> "Полный просмотр таблицы:\n" + plan);
+        assertTrue(List.of(conditions).stream().anyMatch(condition -> seeks(plan, condition)),
+                () -> "Нет поиска по индексу в плане:\n" + plan);
+    }
+
+    private void assertStopsAtFirstRow() {
+
+        String sql = SqlCapture.STATEMENTS.get(0).toLowerCase();
+
+        assertFalse(sql.contains("count("), () -> "Проверка существования считает строки:\n" + sql);
+        assertTrue(sql.contains(" limit ?") || sql.contains(" fetch first ?"),
+                () -> "Проверка существования без ограничения в одну строку:\n" + sql);
+    }
+
+    private void assertPlanReadsInIndexOrder(String index) {
+
+        String plan = explainFirstStatement();
+
+        assertTrue(plan.contains(index) && plan.contains("/* index sorted */"),
+                () -> "Ожидалось чтение в порядке индекса " + index + " в плане:\n" + plan);
+    }
+
+    private boolean seeks(String plan, String condition) {
+
+        return Pattern.compile("/\\* PUBLIC\\.\\w+: [^*]*" + Pattern.quote(condition)).matcher(plan).find();
+    }
+
+    private String explainFirstStatement() {
+
+        assertFalse(SqlCapture.STATEMENTS.isEmpty());
+        String sql = SqlCapture.STATEMENTS.get(0);
+        SqlCapture.STATEMENTS.clear();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet result = statement.executeQuery()) {
+            assertTrue(result.next());
+            return result.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BookingApproveRaceTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @SpyBean
+    BookingRepository bookingRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private User owner;
+
+    private Booking booking;
+
+    @BeforeEach
+    void startUp() {
+
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("drill description")
+                .owner(owner)
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("delete from outbox");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void approveBooking_whenTwoApprovalsShareIfMatch_thenSecondGetsPreconditionFailed() throws Exception {
+
+        String eTag = mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(USER_HEADER, owner.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Оба запроса проходят проверку If-Match по одной версии, затем первый фиксируется,
+        // и только после этого второй сбрасывает своё изменение.
+        CyclicBarrier bothChecked = new CyclicBarrier(2);
+        CountDownLatch firstCommitted = new CountDownLatch(1);
+        AtomicInteger arrivals = new AtomicInteger();
+        // Шпион над прокси репозитория пересылает вызовы настоящему бину через ответ по умолчанию.
+        Answer<?> repository = mockingDetails(bookingRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            bothChecked.await(5, TimeUnit.SECONDS);
+            if (arrivals.getAndIncrement() > 0) {
+                firstCommitted.await(5, TimeUnit.SECONDS);
+            }
+            return repository.answer(invocation);
+        }).when(bookingRepository).saveAndFlush(any(Booking.class));
+
+        CompletableFuture<Integer> approve = CompletableFuture.supplyAsync(() -> approve(eTag, true), executor);
+        CompletableFuture<Integer> reject = CompletableFuture.supplyAsync(() -> approve(eTag, false), executor);
+        CompletableFuture.anyOf(approve, reject).get(10, TimeUnit.SECONDS);
+        firstCommitted.countDown();
+
+        List<Integer> statuses = Stream.of(approve.get(10, TimeUnit.SECONDS), reject.get(10, TimeUnit.SECONDS))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(200, 412), statuses);
+    }
+
+    private int approve(String ifMatch, boolean approved) {
+
+        try {
+            return mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                            .header(USER_HEADER, owner.getId())
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .param("approved", String.valueOf(approved)))
+                    .andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
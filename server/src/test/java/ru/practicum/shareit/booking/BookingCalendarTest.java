@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingCalendarTest {
+
+    @InjectMocks
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+
+    private Item item;
+
+    @BeforeEach
+    void startUp() {
+
+        item = Item.builder()
+                .id(1L)
+                .name("item")
+                .available(true)
+                .build();
+    }
+
+    @Test
+    void reserve_whenRangesDoNotOverlap_thenAllReserved() {
+
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, 10, 12)));
+
+        bookingCalendar.reserve(booking(2L, 12, 14));
+        bookingCalendar.reserve(booking(3L, 5, 10));
+        bookingCalendar.reserve(booking(4L, 20, 21));
+
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void reserve_whenRangeOverlaps_thenExceptionThrown() {
+
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, 0, 30), booking(2L, 10, 12)));
+
+        assertThrows(BookingException.class, () -> bookingCalendar.reserve(booking(3L, 20, 25)));
+        assertThrows(BookingException.class, () -> bookingCalendar.reserve(booking(4L, 29, 40)));
+        bookingCalendar.reserve(booking(5L, 30, 40));
+    }
+
+    @Test
+    void release_whenBookingRejected_thenRangeFreed() {
+
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        Booking first = booking(1L, 10, 20);
+
+        bookingCalendar.reserve(first);
+        assertThrows(BookingException.class, () -> bookingCalendar.reserve(booking(2L, 15, 25)));
+
+        bookingCalendar.release(first);
+
+        bookingCalendar.reserve(booking(2L, 15, 25));
+    }
+
+    @Test
+    void freeWindows_whenRangesBooked_thenReturnGapsInsidePeriod() {
+
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, 2, 4), booking(2L, 3, 6), booking(3L, 8, 9), booking(4L, 15, 20)));
+
+        List<FreeWindowDto> windows = bookingCalendar.freeWindows(item.getId(), base.plusHours(5), base.plusHours(16));
+
+        assertEquals(List.of(
+                new FreeWindowDto(base.plusHours(6), base.plusHours(8)),
+                new FreeWindowDto(base.plusHours(9), base.plusHours(15))), windows);
+    }
+
+    @Test
+    void freeWindows_whenNoBookings_thenReturnWholePeriod() {
+
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(new FreeWindowDto(base, base.plusDays(1))),
+                bookingCalendar.freeWindows(item.getId(), base, base.plusDays(1)));
+    }
+
+    @Test
+    void freeWindows_whenPeriodInvalid_thenExceptionThrown() {
+
+        assertThrows(BookingException.class, () -> bookingCalendar.freeWindows(item.getId(), base, base));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void freeWindows_whenBookingEnded_thenRangeDropped() {
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, now.minusHours(3), now.minusHours(1))));
+
+        List<FreeWindowDto> windows = bookingCalendar.freeWindows(item.getId(), now.minusHours(5), now.plusHours(5));
+
+        assertEquals(List.of(new FreeWindowDto(now.minusHours(5), now.plusHours(5))), windows);
+    }
+
+    @Test
+    void evictIdle_whenOnlyEndedBookingsLeft_thenCalendarEvicted() {
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item other = item.toBuilder().id(2L).build();
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), any(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        bookingCalendar.reserve(booking(1L, now.minusHours(2), now.minusHours(1)));
+        Booking future = booking(2L, now.plusHours(1), now.plusHours(2));
+        future.setItem(other);
+        bookingCalendar.reserve(future);
+        assertEquals(2, bookingCalendar.calendarCount());
+
+        bookingCalendar.evictIdle();
+
+        assertEquals(1, bookingCalendar.calendarCount());
+        Booking overlapping = booking(3L, now.plusHours(1), now.plusHours(3));
+        overlapping.setItem(other);
+        assertThrows(BookingException.class, () -> bookingCalendar.reserve(overlapping));
+    }
+
+    private Booking booking(Long id, int startHour, int endHour) {
+
+        return booking(id, base.plusHours(startHour), base.plusHours(endHour));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
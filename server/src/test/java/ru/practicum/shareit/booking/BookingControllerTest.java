@@ -11,24 +11,43 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.conditional.Versioned;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.handler.ErrorHandler;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.user.dto.UserBookingDto;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +59,12 @@ public class BookingControllerTest {
     @Mock
     BookingServiceImpl bookingService;
 
+    @Mock
+    BookingExporter bookingExporter;
+
+    @Mock
+    IdempotencyStore idempotencyStore;
+
 
     @Autowired
     private final ObjectMapper objectMapper = JsonMapper.builder()
@@ -57,8 +82,12 @@ public class BookingControllerTest {
 
     @BeforeEach
     void startUp() {
+        lenient().when(idempotencyStore.execute(anyLong(), any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.<Supplier<?>>getArgument(4).get()));
+
         mockMvc = MockMvcBuilders
                 .standaloneSetup(bookingController)
+                .setControllerAdvice(new ErrorHandler())
                 .build();
 
         bookingDtoResponse = BookingDtoResponse.builder()
@@ -99,14 +128,31 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingDtoResponse), result);
     }
 
+    @SneakyThrows
+    @Test
+    void createBooking_whenIdempotencyKey_thenKeyPassedToStore() {
+
+        when(bookingService.createBooking(anyLong(), any(BookingDtoRequest.class))).thenReturn(bookingDtoResponse);
+
+        mockMvc.perform(post("/bookings")
+                        .content(objectMapper.writeValueAsString(bookingDtoRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1")
+                        .header(IdempotencyStore.HEADER, "key-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(idempotencyStore).execute(eq(1L), eq("key-1"), eq("POST /bookings"), eq(bookingDtoRequest), any());
+    }
+
     @SneakyThrows
     @Test
     void approvedBooking_whenStatusApprove_thenReturnBooking()  {
 
         Long bookingId = 1L;
 
-        when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean()))
-                .thenReturn(bookingDtoResponse);
+        when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean(), isNull()))
+                .thenReturn(new Versioned<>(bookingDtoResponse, "\"1-0\""));
 
 
         String result = mockMvc.perform(patch("/bookings/{bookingId}?approved=true", bookingId)
@@ -122,6 +168,81 @@ public class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingDtoResponse), result);
     }
 
+    @SneakyThrows
+    @Test
+    void approvedBooking_whenIfMatch_thenVersionPassedAndNewETagReturned() {
+
+        when(bookingService.approveBooking(1L, 1L, true, 2L))
+                .thenReturn(new Versioned<>(bookingDtoResponse, "\"3-0\""));
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", 1L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1")
+                        .header(HttpHeaders.IF_MATCH, "\"2-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-0\""))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings_whenBatch_thenReturnOutcomes() {
+
+        BookingBatchRequest batchRequest = new BookingBatchRequest(List.of(1L, 2L), true);
+        List<BookingBatchResult> results = List.of(
+                new BookingBatchResult(1L, BookingBatchResult.Outcome.UPDATED, BookingStatus.APPROVED),
+                new BookingBatchResult(2L, BookingBatchResult.Outcome.NOT_FOUND, null));
+
+        when(bookingService.approveBookings(1L, batchRequest)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(batchRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings_whenStatusChangedConcurrently_thenReturnConflict() {
+
+        BookingBatchRequest batchRequest = new BookingBatchRequest(List.of(1L, 2L), true);
+
+        when(bookingService.approveBookings(1L, batchRequest))
+                .thenThrow(new ConflictException("Статус части бронирований изменился во время обработки"));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(batchRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Статус части бронирований изменился во время обработки"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingSummaryByOwner_whenOwnerExists_thenReturnCounts() {
+
+        BookingSummaryDto summary = new BookingSummaryDto(6, 1, 2, 3, 2, 0);
+        when(bookingService.getBookingSummaryByOwner(1L)).thenReturn(summary);
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(6))
+                .andExpect(jsonPath("$.future").value(3))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
     @SneakyThrows
     @Test
     void getBookingById_whenValidId_thenReturnBooking() {
@@ -129,7 +250,7 @@ public class BookingControllerTest {
         Long bookingId = 1L;
 
         when(bookingService.getBookingById(anyLong(), anyLong()))
-                .thenReturn(bookingDtoResponse);
+                .thenReturn(new Versioned<>(bookingDtoResponse, "\"1-0\""));
 
 
         String result = mockMvc.perform(get("/bookings/{bookingId}", bookingId)
@@ -185,4 +306,41 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
     }
+
+    @SneakyThrows
+    @Test
+    void exportBookingsByOwner_whenOwnerExists_thenStreamNdjson() {
+
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(bookingExporter).exportByOwner(anyLong(), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_HEADER, "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingById_whenIfNoneMatchIsCurrent_thenNotModifiedWithoutBody() {
+
+        when(bookingService.getBookingById(1L, 1L))
+                .thenReturn(new Versioned<>(bookingDtoResponse, "\"1-0\""));
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+                .andExpect(content().string(""));
+    }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.outbox.InMemoryOutboxBus;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class BookingEventRegistryTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingExporter bookingExporter;
+
+    @Mock
+    private IdValidator idValidator;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private final InMemoryOutboxBus outboxBus = new InMemoryOutboxBus();
+
+    private final List<Runnable> pending = new ArrayList<>();
+
+    @BeforeEach
+    void startUp() {
+        pending.clear();
+    }
+
+    @Test
+    void publish_whenBookingEvent_thenSentToBookerAndOwnerOnly() throws Exception {
+
+        MockMvc mockMvc = mockMvc(registry(Runnable::run, 16));
+        MockHttpServletResponse booker = subscribe(mockMvc, 1L);
+        MockHttpServletResponse owner = subscribe(mockMvc, 2L);
+        MockHttpServletResponse stranger = subscribe(mockMvc, 3L);
+
+        outboxBus.publish(List.of(event(10L, OutboxEvent.BOOKING, OutboxEvent.BOOKING_APPROVED,
+                "{\"id\":5,\"bookerId\":1,\"ownerId\":2,\"status\":\"APPROVED\"}")));
+
+        for (MockHttpServletResponse response : List.of(booker, owner)) {
+            String body = response.getContentAsString();
+            assertTrue(body.contains("id:10\n"));
+            assertTrue(body.contains("event:BOOKING_APPROVED\n"));
+            assertTrue(body.contains("data:{\"id\":5,\"bookerId\":1,\"ownerId\":2,\"status\":\"APPROVED\"}\n\n"));
+        }
+        assertEquals("", stranger.getContentAsString());
+    }
+
+    @Test
+    void publish_whenNotBookingEvent_thenIgnored() throws Exception {
+
+        MockMvc mockMvc = mockMvc(registry(Runnable::run, 16));
+        MockHttpServletResponse owner = subscribe(mockMvc, 2L);
+
+        outboxBus.publish(List.of(event(11L, OutboxEvent.ITEM, OutboxEvent.ITEM_CREATED,
+                "{\"id\":5,\"ownerId\":2}")));
+
+        assertEquals("", owner.getContentAsString());
+    }
+
+    @Test
+    void heartbeat_whenSubscribed_thenCommentSent() throws Exception {
+
+        BookingEventRegistry registry = registry(Runnable::run, 16);
+        MockHttpServletResponse response = subscribe(mockMvc(registry), 1L);
+
+        registry.heartbeat();
+
+        assertEquals(":heartbeat\n\n", response.getContentAsString());
+    }
+
+    @Test
+    void publish_whenSubscriberFallsBehind_thenDisconnectedWithoutBlockingRelay() throws Exception {
+
+        BookingEventRegistry registry = registry(pending::add, 2);
+        subscribe(mockMvc(registry), 1L);
+
+        for (long id = 1; id <= 3; id++) {
+            outboxBus.publish(List.of(event(id, OutboxEvent.BOOKING, OutboxEvent.BOOKING_CREATED,
+                    "{\"bookerId\":1,\"ownerId\":2}")));
+        }
+
+        assertEquals(0, registry.subscriberCount());
+        assertEquals(2, pending.size());
+    }
+
+    private BookingEventRegistry registry(Executor executor, int queueCapacity) {
+        return new BookingEventRegistry(outboxBus, new ObjectMapper(), idValidator, executor, Duration.ofMinutes(1),
+                queueCapacity);
+    }
+
+    private MockMvc mockMvc(BookingEventRegistry registry) {
+        return MockMvcBuilders
+                .standaloneSetup(new BookingController(bookingService, bookingExporter, registry, idempotencyStore))
+                .build();
+    }
+
+    private static MockHttpServletResponse subscribe(MockMvc mockMvc, Long userId) throws Exception {
+        return mockMvc.perform(get("/bookings/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(USER_HEADER, String.valueOf(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static OutboxEvent event(Long id, String aggregateType, String eventType, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(aggregateType)
+                .aggregateId(5L)
+                .eventType(eventType)
+                .payload(payload)
+                .build();
+    }
+}
@@ -0,0 +1,260 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.Pagination;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureJson
+@Import({HibernateCacheConfig.class, ChangeSequence.class, BookingExporter.class, IdValidator.class})
+public class BookingRepositoryTest {
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookingExporter bookingExporter;
+
+    private final Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0, 0);
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    private Booking current;
+
+    @BeforeEach
+    void startUp() {
+
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("item description")
+                .owner(owner)
+                .available(true)
+                .build());
+
+        save(now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        current = save(now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        save(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        save(now.plusDays(3), now.plusDays(4), BookingStatus.REJECTED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void streamAllByItemOwnerId_whenBookingsExist_thenStreamedInListingOrder() {
+
+        List<Booking> bookings;
+        try (Stream<Booking> stream = bookingRepository.streamAllByItemOwnerId(owner.getId())) {
+            bookings = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(4, bookings.size());
+        assertEquals(now.plusDays(3), bookings.get(0).getStart());
+        assertEquals("item", bookings.get(0).getItem().getName());
+        assertEquals(booker.getId(), bookings.get(3).getBooker().getId());
+    }
+
+    @Test
+    void exportByOwner_whenBookingsExist_thenOneJsonLinePerBookingAndEntitiesDetached() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = bookingExporter.exportByOwner(owner.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, count);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"status\":\"REJECTED\""));
+        assertTrue(lines[2].contains("\"id\":" + current.getId() + ","));
+        Set<?> managed = entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityKeys();
+        assertTrue(managed.stream()
+                .map(EntityKey.class::cast)
+                .noneMatch(key -> key.getEntityName().equals(Booking.class.getName())));
+    }
+
+    @Test
+    void findAllByBookerId_whenBookingsExist_thenReturnDtosInOneStatement() {
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDtoResponse> bookings = bookingRepository.findAllByBookerId(booker.getId(),
+                Pagination.withSort(0, 10, sort));
+
+        assertEquals(4, bookings.size());
+        assertEquals(now.plusDays(3), bookings.get(0).getStart());
+        assertEquals(item.getId(), bookings.get(0).getItem().getId());
+        assertEquals("item", bookings.get(0).getItem().getName());
+        assertEquals(booker.getId(), bookings.get(0).getBooker().getId());
+        assertEquals(BookingStatus.REJECTED, bookings.get(0).getStatus());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findDetailById_whenBookingExists_thenItemFetchedInOneStatement() {
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findDetailById(current.getId()).orElseThrow();
+
+        assertEquals("item", booking.getItem().getName());
+        assertEquals(owner.getId(), booking.getItem().getOwner().getId());
+        assertEquals(booker.getId(), booking.getBooker().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void saveAll_whenSeveralBookings_thenInsertedInOneBatch() {
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookings.add(Booking.builder()
+                    .start(now.plusDays(10 + i))
+                    .end(now.plusDays(11 + i))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+
+        assertEquals(14, bookingRepository.count());
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+    }
+
+    @Test
+    void findByState_whenOwnerBookings_thenFilterByTime() {
+
+        assertEquals(1, bookingRepository.findCurrentByItemOwnerId(owner.getId(), now,
+                Pagination.withSort(0, 10, sort)).size());
+        assertEquals(1, bookingRepository.findPastByItemOwnerId(owner.getId(), now,
+                Pagination.withSort(0, 10, sort)).size());
+        assertEquals(2, bookingRepository.findFutureByItemOwnerId(owner.getId(), now,
+                Pagination.withSort(0, 10, sort)).size());
+        assertEquals(1, bookingRepository.findAllByItemOwnerIdAndStatus(owner.getId(), BookingStatus.WAITING,
+                Pagination.withSort(0, 10, sort)).size());
+        assertEquals(0, bookingRepository.findAllByItemOwnerId(booker.getId(),
+                Pagination.withSort(0, 10, sort)).size());
+    }
+
+    @Test
+    void findNextByItemOwnerId_whenCursor_thenReturnOlderBookings() {
+
+        List<BookingDtoResponse> firstPage = bookingRepository.findAllByItemOwnerId(owner.getId(),
+                Pagination.withSort(0, 2, sort));
+        BookingDtoResponse last = firstPage.get(1);
+
+        List<BookingDtoResponse> nextPage = bookingRepository.findNextByItemOwnerId(owner.getId(), last.getStart(),
+                last.getId(), Pagination.keyset(2));
+
+        assertEquals(2, nextPage.size());
+        assertEquals(now.minusDays(1), nextPage.get(0).getStart());
+        assertEquals(now.minusDays(5), nextPage.get(1).getStart());
+    }
+
+    @Test
+    void updateStatusByIdInAndStatus_whenWaitingAndDecided_thenOnlyOwnedWaitingUpdated() {
+
+        Booking waiting = save(now.plusDays(5), now.plusDays(6), BookingStatus.WAITING);
+        List<Long> ids = List.of(current.getId(), waiting.getId());
+
+        List<BookingDecisionView> decisions = bookingRepository.findDecisionsByIdInAndItemOwnerId(ids, owner.getId());
+        int updated = bookingRepository.updateStatusByIdInAndStatus(ids, BookingStatus.WAITING,
+                BookingStatus.REJECTED, 1000L);
+
+        assertEquals(2, decisions.size());
+        assertEquals(item.getId(), decisions.get(0).getItemId());
+        assertTrue(bookingRepository.findDecisionsByIdInAndItemOwnerId(ids, booker.getId()).isEmpty());
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        assertEquals(1000L, bookingRepository.findById(waiting.getId()).orElseThrow().getChangeSeq());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(current.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void countByState_whenBookingsExist_thenCountsMatchStateLists() {
+
+        BookingSummaryView ownerSummary = bookingRepository.countByStateAndItemOwnerId(owner.getId(), now);
+        BookingSummaryView bookerSummary = bookingRepository.countByStateAndBookerId(booker.getId(), now);
+
+        for (BookingSummaryView summary : List.of(ownerSummary, bookerSummary)) {
+            assertEquals(4, summary.getAllCount());
+            assertEquals(1, summary.getCurrentCount());
+            assertEquals(1, summary.getPastCount());
+            assertEquals(2, summary.getFutureCount());
+            assertEquals(1, summary.getWaitingCount());
+            assertEquals(1, summary.getRejectedCount());
+        }
+        assertEquals(bookingRepository.findFutureByItemOwnerId(owner.getId(), now,
+                Pagination.withSort(0, 10, sort)).size(), ownerSummary.getFutureCount());
+        assertEquals(0, bookingRepository.countByStateAndItemOwnerId(booker.getId(), now).getAllCount());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
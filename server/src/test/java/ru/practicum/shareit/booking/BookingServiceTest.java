@@ -5,22 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.conditional.ETags;
+import ru.practicum.shareit.conditional.Versioned;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.PaginationException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -28,24 +43,43 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
 
-    @InjectMocks
     private BookingServiceImpl bookingService;
 
+    private IdValidator idValidator;
+
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private RequestRepository requestRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ChangeSequence changeSequence;
+
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
 
@@ -61,6 +95,10 @@ public class BookingServiceTest {
 
     @BeforeEach
     void startUp() {
+        idValidator = new IdValidator(userRepository, itemRepository, requestRepository, 1024,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        bookingService = new BookingServiceImpl(bookingRepository, bookingCalendar, itemViewCache, idValidator,
+                outboxWriter, changeSequence);
 
         user = User.builder()
                 .id(1L)
@@ -85,8 +123,6 @@ public class BookingServiceTest {
                 .owner(owner)
                 .available(true)
                 .requestId(null)
-                .lastBooking(null)
-                .nextBooking(null)
                 .build();
 
         bookingRequest = BookingDtoRequest.builder()
@@ -103,7 +139,8 @@ public class BookingServiceTest {
     @Test
     void createBooking_whenValidUserIdAndItemIsAvailable_thenReturnBooking() {
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
@@ -112,33 +149,103 @@ public class BookingServiceTest {
         actualBooking.setId(1L);
 
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualBooking);
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(itemRepository, times(1)).findById(item.getId());
     }
 
+    @Test
+    void createBooking_whenItemAlreadyBookedForPeriod_thenExceptionThrown() {
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        doThrow(new BookingException("overlap")).when(bookingCalendar).reserve(any(Booking.class));
+
+        assertThrows(BookingException.class, () -> bookingService.createBooking(user.getId(), bookingRequest));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void approveBookings_whenMixedBookings_thenOnlyWaitingUpdatedInOneStatement() {
+
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findDecisionsByIdInAndItemOwnerId(anyCollection(), eq(2L))).thenReturn(List.of(
+                decision(1L, BookingStatus.WAITING), decision(2L, BookingStatus.APPROVED),
+                decision(4L, BookingStatus.WAITING)));
+        when(changeSequence.next()).thenReturn(7L);
+        when(bookingRepository.updateStatusByIdInAndStatus(List.of(1L, 4L), BookingStatus.WAITING,
+                BookingStatus.REJECTED, 7L)).thenReturn(2);
+
+        List<BookingBatchResult> results = bookingService.approveBookings(owner.getId(),
+                new BookingBatchRequest(List.of(1L, 2L, 3L, 4L, 1L), false));
+
+        assertEquals(List.of(
+                new BookingBatchResult(1L, BookingBatchResult.Outcome.UPDATED, BookingStatus.REJECTED),
+                new BookingBatchResult(2L, BookingBatchResult.Outcome.ALREADY_DECIDED, BookingStatus.APPROVED),
+                new BookingBatchResult(3L, BookingBatchResult.Outcome.NOT_FOUND, null),
+                new BookingBatchResult(4L, BookingBatchResult.Outcome.UPDATED, BookingStatus.REJECTED)), results);
+        verify(bookingCalendar, times(1)).release(item.getId(), 1L);
+        verify(bookingCalendar, times(1)).release(item.getId(), 4L);
+        verify(outboxWriter, times(1)).appendAll(eq(OutboxEvent.BOOKING), eq(OutboxEvent.BOOKING_REJECTED),
+                argThat(changes -> changes.size() == 2));
+        verify(itemViewCache, times(1)).evict(item.getId());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void approveBookings_whenStatusChangedConcurrently_thenExceptionThrown() {
+
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findDecisionsByIdInAndItemOwnerId(anyCollection(), eq(2L)))
+                .thenReturn(List.of(decision(1L, BookingStatus.WAITING)));
+        when(changeSequence.next()).thenReturn(7L);
+        when(bookingRepository.updateStatusByIdInAndStatus(List.of(1L), BookingStatus.WAITING,
+                BookingStatus.APPROVED, 7L)).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> bookingService.approveBookings(owner.getId(),
+                new BookingBatchRequest(List.of(1L), true)));
+        verify(itemViewCache, never()).evict(anyLong());
+    }
+
+    @Test
+    void approvedBooking_whenOwnerRejects_thenCalendarReleased() {
+
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
+
+        BookingDtoResponse actualBookingDto = bookingService.approveBooking(owner.getId(), booking.getId(), false, null)
+                .getBody();
+
+        assertEquals(BookingStatus.REJECTED, actualBookingDto.getStatus());
+        verify(bookingCalendar, times(1)).release(booking);
+        verify(outboxWriter, times(1)).append(OutboxEvent.BOOKING, booking.getId(), OutboxEvent.BOOKING_REJECTED,
+                BookingMapper.toBookingEventDto(booking));
+    }
+
     @Test
     void createBooking_whenInvalidUserId_thenExceptionThrown() {
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.createBooking(user.getId(), bookingRequest));
 
         verify(itemRepository, never()).findById(item.getId());
         verify(bookingRepository, never()).save(booking);
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
 
     }
 
     @Test
     void createBooking_whenInvalidUserIsOwner_thenExceptionThrown() {
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.getReferenceById(2L)).thenReturn(owner);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.createBooking(owner.getId(), bookingRequest));
 
         verify(bookingRepository, never()).save(booking);
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
         verify(itemRepository, times(1)).findById(item.getId());
 
     }
@@ -146,13 +253,14 @@ public class BookingServiceTest {
     @Test
     void createBooking_whenInvalidItemId_thenExceptionThrown() {
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> bookingService.createBooking(user.getId(), bookingRequest));
 
 
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(itemRepository, times(1)).findById(item.getId());
         verify(bookingRepository, never()).save(booking);
     }
@@ -160,89 +268,116 @@ public class BookingServiceTest {
     @Test
     void approvedBooking_whenOwnerAndBookingIsNotWaiting_thenReturnBooking() {
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingDtoResponse actualBookingDto = bookingService
-                .approveBooking(owner.getId(),  booking.getId(), true);
+                .approveBooking(owner.getId(),  booking.getId(), true, null).getBody();
 
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualBookingDto);
 
-        verify(bookingRepository).save(bookingArgumentCaptor.capture());
+        verify(bookingRepository).saveAndFlush(bookingArgumentCaptor.capture());
 
         Booking actualBooking = bookingArgumentCaptor.getValue();
 
         assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
-        verify(bookingRepository, times(1)).findById(booking.getId());
-        verify(bookingRepository, times(1)).save(booking);
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
+        verify(bookingRepository, times(1)).saveAndFlush(booking);
     }
 
     @Test
     void approvedBooking_whenInvalidBookingId_thenExceptionThrown() {
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true, null));
 
-        verify(bookingRepository, never()).save(booking);
-        verify(bookingRepository, times(1)).findById(booking.getId());
+        verify(bookingRepository, never()).saveAndFlush(booking);
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
 
     }
 
     @Test
     void approvedBooking_whenUserIsNotOwner_thenExceptionThrown() {
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(EntityNotFoundException.class,
-                () -> bookingService.approveBooking(user.getId(), booking.getId(), true));
+                () -> bookingService.approveBooking(user.getId(), booking.getId(), true, null));
 
-        verify(bookingRepository, never()).save(booking);
-        verify(bookingRepository, times(1)).findById(booking.getId());
+        verify(bookingRepository, never()).saveAndFlush(booking);
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
+
+    }
 
+    @Test
+    void approvedBooking_whenVersionIsStale_thenExceptionThrown() {
+
+        booking.setVersion(3L);
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), true, 2L));
+
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(bookingRepository, never()).saveAndFlush(booking);
+        verify(outboxWriter, never()).append(anyString(), anyLong(), anyString(), any());
+    }
+
+    @Test
+    void getBookingById_whenBookingExist_thenETagContainsBookingAndItemVersions() {
+
+        booking.setVersion(3L);
+        item.setVersion(5L);
+        when(bookingRepository.findDetailById(1L)).thenReturn(Optional.of(booking));
+
+        Versioned<BookingDtoResponse> actualBooking = bookingService.getBookingById(user.getId(), booking.getId());
+
+        assertEquals("\"3-5\"", actualBooking.getETag());
+        assertEquals(3L, ETags.version(actualBooking.getETag()));
     }
 
     @Test
     void getBookingById_whenOwnerOrBookerAndBookingExist_thenReturnBooking() {
 
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailById(1L)).thenReturn(Optional.of(booking));
 
-        BookingDtoResponse actualBooking = bookingService.getBookingById(owner.getId(), booking.getId());
+        BookingDtoResponse actualBooking = bookingService.getBookingById(owner.getId(), booking.getId()).getBody();
 
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualBooking);
-        verify(bookingRepository, times(1)).findById(booking.getId());
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
     }
 
     @Test
     void getBookingById_whenInvalidUserId_thenExceptionThrown() {
 
         Long userId = 100L;
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findDetailById(1L)).thenReturn(Optional.of(booking));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(userId, booking.getId()));
 
-        verify(bookingRepository, times(1)).findById(booking.getId());
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
     }
 
     @Test
     void getBookingById_whenInvalidBookingId_thenExceptionThrown() {
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findDetailById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(owner.getId(), booking.getId()));
 
-        verify(bookingRepository, times(1)).findById(booking.getId());
+        verify(bookingRepository, times(1)).findDetailById(booking.getId());
     }
 
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusAll_thenReturnBookingList() {
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
         when(bookingRepository.findAllByBookerId(anyLong(), any(PageRequest.class))).thenReturn(bookings);
 
         List<BookingDtoResponse> actualList =
@@ -250,19 +385,18 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(bookingRepository, times(1)).findAllByBookerId(user.getId(),
-                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
     }
 
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusCurrent_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
-                any(LocalDateTime.class),
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findCurrentByBookerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -271,16 +405,16 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusPast_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndEndBefore(anyLong(), any(LocalDateTime.class),
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findPastByBookerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -289,7 +423,7 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
 
 
     }
@@ -297,10 +431,10 @@ public class BookingServiceTest {
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusFuture_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStartAfter(anyLong(), any(LocalDateTime.class),
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findFutureByBookerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -309,15 +443,15 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusWaiting_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(BookingStatus.class),
                 any(Pageable.class)))
@@ -328,15 +462,15 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
     void getSortBookingByUser_whenValidUserIdAndStatusRejected_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(BookingStatus.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
@@ -346,7 +480,7 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -363,22 +497,22 @@ public class BookingServiceTest {
     @Test
     void getSortBookingByUser_whenInvalidUserId_thenReturnException() {
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getSortBookingByUser(user.getId(), "REJECTED", 0, 10));
 
 
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndBookingExist_thenReturnBooking() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(2L)).thenReturn(true);
 
         when(bookingRepository.findAllByItemOwnerId(anyLong(),
                 any(Pageable.class)))
@@ -389,30 +523,30 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
         verify(bookingRepository, times(1)).findAllByItemOwnerId(owner.getId(),
-                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
     }
 
     @Test
     void getSortBookingByOwner_whenInvalidUserId_thenExceptionThrown() {
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getSortBookingByOwner(owner.getId(), "REJECTED", 0, 10));
 
 
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
         verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusAll_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(2L)).thenReturn(true);
 
         when(bookingRepository.findAllByItemOwnerId(anyLong(),
                 any(Pageable.class)))
@@ -423,18 +557,17 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
         verify(bookingRepository, times(1)).findAllByItemOwnerId(owner.getId(),
-                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+                Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusCurrent_thenReturnBookingList() {
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
-                any(LocalDateTime.class),
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findCurrentByItemOwnerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -443,16 +576,16 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusPast_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndEndBefore(anyLong(), any(LocalDateTime.class),
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findPastByItemOwnerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -461,16 +594,16 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusFuture_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfter(anyLong(), any(LocalDateTime.class),
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findFutureByItemOwnerId(anyLong(), any(LocalDateTime.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
 
@@ -479,15 +612,15 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusWaiting_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(BookingStatus.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
@@ -497,15 +630,15 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
     }
 
     @Test
     void getSortBookingByOwner_whenValidUserIdAndStatusRejected_thenReturnBookingList() {
 
-        List<Booking> bookings = List.of(booking);
+        List<BookingDtoResponse> bookings = List.of(BookingMapper.toBookingDtoResponse(booking));
 
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(BookingStatus.class),
                 any(Pageable.class)))
                 .thenReturn(bookings);
@@ -515,7 +648,7 @@ public class BookingServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(userRepository, times(1)).existsById(owner.getId());
     }
 
     @Test
@@ -526,4 +659,130 @@ public class BookingServiceTest {
 
         verifyNoInteractions(bookingRepository);
     }
+
+    @Test
+    void getSortBookingByUser_whenCursorAndStatusAll_thenReturnNextBookings() {
+
+        PageCursor after = PageCursor.of(LocalDateTime.of(2025, 2, 1, 10, 0, 0), 5L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findNextByBookerId(user.getId(), after.getKey(), after.getId(),
+                Pagination.keyset(10)))
+                .thenReturn(List.of(BookingMapper.toBookingDtoResponse(booking)));
+
+        List<BookingDtoResponse> actualList =
+                bookingService.getSortBookingByUser(user.getId(), "ALL", after, 10);
+
+        assertEquals(1, actualList.size());
+        assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
+        verify(bookingRepository, never()).findAllByBookerId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getSortBookingByUser_whenCursorAndStatusWaiting_thenReturnNextBookings() {
+
+        PageCursor after = PageCursor.of(LocalDateTime.of(2025, 2, 1, 10, 0, 0), 5L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findNextByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, after.getKey(),
+                after.getId(), Pagination.keyset(10)))
+                .thenReturn(List.of(BookingMapper.toBookingDtoResponse(booking)));
+
+        List<BookingDtoResponse> actualList =
+                bookingService.getSortBookingByUser(user.getId(), "WAITING", after, 10);
+
+        assertEquals(1, actualList.size());
+        assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
+    }
+
+    @Test
+    void getSortBookingByOwner_whenCursorAndStatusPast_thenReturnNextBookings() {
+
+        PageCursor after = PageCursor.of(LocalDateTime.of(2025, 2, 1, 10, 0, 0), 5L);
+
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findNextPastByItemOwnerId(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDtoResponse(booking)));
+
+        List<BookingDtoResponse> actualList =
+                bookingService.getSortBookingByOwner(owner.getId(), "PAST", after, 10);
+
+        assertEquals(1, actualList.size());
+        assertEquals(BookingMapper.toBookingDtoResponse(booking), actualList.get(0));
+        verify(bookingRepository, times(1)).findNextPastByItemOwnerId(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getSortBookingByOwner_whenCursorWithoutStart_thenExceptionThrown() {
+
+        assertThrows(PaginationException.class, () -> bookingService.getSortBookingByOwner(owner.getId(),
+                "ALL", PageCursor.of(null, 5L), 10));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingSummaryByOwner_whenOwnerExists_thenCountsFromOneQuery() {
+
+        BookingSummaryView summary = mock(BookingSummaryView.class);
+        when(summary.getAllCount()).thenReturn(6L);
+        when(summary.getCurrentCount()).thenReturn(1L);
+        when(summary.getPastCount()).thenReturn(2L);
+        when(summary.getFutureCount()).thenReturn(3L);
+        when(summary.getWaitingCount()).thenReturn(2L);
+        when(summary.getRejectedCount()).thenReturn(0L);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.countByStateAndItemOwnerId(eq(2L), any(LocalDateTime.class))).thenReturn(summary);
+
+        BookingSummaryDto actual = bookingService.getBookingSummaryByOwner(owner.getId());
+
+        assertEquals(new BookingSummaryDto(6, 1, 2, 3, 2, 0), actual);
+        verify(bookingRepository, never()).findAllByItemOwnerId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingSummaryByUser_whenUserNotFound_thenExceptionThrown() {
+
+        when(userRepository.existsById(anyLong())).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> bookingService.getBookingSummaryByUser(99L));
+        verify(bookingRepository, never()).countByStateAndBookerId(anyLong(), any(LocalDateTime.class));
+    }
+
+    private BookingDecisionView decision(Long id, BookingStatus status) {
+
+        return new BookingDecisionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return user.getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return booking.getEnd();
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+        };
+    }
 }
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.ItemTimelineDto;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({BookingTimeline.class, HibernateCacheConfig.class, ChangeSequence.class})
+public class BookingTimelineTest {
+
+    @Autowired
+    BookingTimeline bookingTimeline;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0, 0);
+
+    private User booker;
+
+    private Item firstItem;
+
+    private Item secondItem;
+
+    @BeforeEach
+    void startUp() {
+
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+
+        firstItem = itemRepository.save(Item.builder()
+                .name("first item")
+                .description("first item description")
+                .owner(owner)
+                .available(true)
+                .build());
+        secondItem = itemRepository.save(Item.builder()
+                .name("second item")
+                .description("second item description")
+                .owner(owner)
+                .available(true)
+                .build());
+    }
+
+    @Test
+    void findByItemIds_whenSeveralBookings_thenReturnClosestApprovedPerItem() {
+
+        save(firstItem, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking last = save(firstItem, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        save(firstItem, now.minusDays(1), now.plusDays(1), BookingStatus.REJECTED);
+        Booking next = save(firstItem, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        save(firstItem, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+        save(firstItem, now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+        Booking secondNext = save(secondItem, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+
+        Map<Long, ItemTimelineDto> timelines =
+                bookingTimeline.findByItemIds(List.of(firstItem.getId(), secondItem.getId()), now);
+
+        assertEquals(2, timelines.size());
+        assertEquals(new BookingItemDto(last.getId(), booker.getId()),
+                timelines.get(firstItem.getId()).getLastBooking());
+        assertEquals(new BookingItemDto(next.getId(), booker.getId()),
+                timelines.get(firstItem.getId()).getNextBooking());
+        assertNull(timelines.get(secondItem.getId()).getLastBooking());
+        assertEquals(new BookingItemDto(secondNext.getId(), booker.getId()),
+                timelines.get(secondItem.getId()).getNextBooking());
+    }
+
+    @Test
+    void findByItemId_whenNoBookings_thenReturnEmptyTimeline() {
+
+        assertEquals(ItemTimelineDto.EMPTY, bookingTimeline.findByItemId(firstItem.getId(), now));
+        assertTrue(bookingTimeline.findByItemIds(List.of(), now).isEmpty());
+    }
+
+    private Booking save(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+}
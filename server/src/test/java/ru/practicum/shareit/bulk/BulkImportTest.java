@@ -0,0 +1,144 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.user.UserImporter;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "shareit.import.chunk-size=2")
+@AutoConfigureJson
+@Import({BulkImport.class, ItemImporter.class, UserImporter.class, IdValidator.class, OutboxWriter.class,
+        ChangeSequence.class, HibernateCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkImportTest {
+
+    @Autowired
+    UserImporter userImporter;
+
+    @Autowired
+    ItemImporter itemImporter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    ItemSearchEngine itemSearchEngine;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from outbox");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void importUsers_whenDuplicateAndMalformedRows_thenOthersImported() {
+
+        ImportReport report = userImporter.importUsers(ndjson(
+                "{\"name\":\"first\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"copy\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":",
+                "",
+                "{\"row\":17,\"name\":\"second\",\"email\":\"second@mail.ru\"}"));
+
+        assertEquals(4, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(2L, 3L), List.of(report.getErrors().get(0).getRow(), report.getErrors().get(1).getRow()));
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    void importUsers_whenEmailAlreadyStored_thenRowRejectedInLaterChunk() {
+
+        userImporter.importUsers(ndjson("{\"name\":\"first\",\"email\":\"first@mail.ru\"}"));
+
+        ImportReport report = userImporter.importUsers(ndjson(
+                "{\"name\":\"second\",\"email\":\"second@mail.ru\"}",
+                "{\"name\":\"third\",\"email\":\"third@mail.ru\"}",
+                "{\"name\":\"again\",\"email\":\"first@mail.ru\"}"));
+
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void importUsers_whenBatchFails_thenRowsRetriedOneByOne() {
+
+        ImportReport report = userImporter.importUsers(ndjson(
+                "{\"name\":\"" + "x".repeat(300) + "\",\"email\":\"long@mail.ru\"}",
+                "{\"name\":\"short\",\"email\":\"short@mail.ru\"}"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void importItems_whenRowsSpanChunks_thenItemsInsertedWithDistinctIds() {
+
+        userImporter.importUsers(ndjson("{\"name\":\"owner\",\"email\":\"owner@mail.ru\"}"));
+        Long ownerId = jdbcTemplate.queryForObject("select id from users", Long.class);
+
+        ImportReport report = itemImporter.importItems(ownerId, ndjson(
+                "{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}",
+                "{\"name\":\"saw\",\"description\":\"saw\",\"available\":true,\"requestId\":999}",
+                "{\"name\":\"hammer\",\"description\":\"hammer\",\"available\":false}"));
+
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals(2, jdbcTemplate.queryForObject("select count(distinct id) from items where owner_id = ?",
+                Integer.class, ownerId));
+        verify(itemSearchEngine, times(2)).index(any(Item.class));
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from outbox where event_type = 'ITEM_CREATED'",
+                Integer.class));
+    }
+
+    @Test
+    void importItems_whenOwnerMissing_thenExceptionThrown() {
+
+        assertThrows(EntityNotFoundException.class, () -> itemImporter.importItems(999L,
+                ndjson("{\"name\":\"drill\",\"description\":\"drill\",\"available\":true}")));
+    }
+
+    @Test
+    void importReport_whenMoreErrorsThanLimit_thenTruncated() {
+
+        ImportReport report = new ImportReport(1);
+        report.rejected(1, "first");
+        report.rejected(2, "second");
+
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({HibernateCacheConfig.class, ChangeSequence.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class HibernateCacheTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User user;
+
+    private Item item;
+
+    @BeforeEach
+    void startUp() {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder().name("user").email("cached@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("item description")
+                .owner(user)
+                .available(true)
+                .build());
+        saveComment("first");
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        commentRepository.deleteAll(commentRepository.findAllByItemId(item.getId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void findById_whenEntityCached_thenNoStatementExecuted() {
+
+        itemRepository.findById(item.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        Item cached = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(user.getId(), cached.getOwner().getId());
+        assertTrue(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.ITEMS).getHitCount() > 0);
+    }
+
+    @Test
+    void findAllByItemId_whenCalledTwice_thenSecondServedFromQueryCache() {
+
+        commentRepository.findAllByItemId(item.getId());
+        commentRepository.findAllByItemId(item.getId());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void findAllByItemId_whenCommentAdded_thenQueryCacheInvalidated() {
+
+        commentRepository.findAllByItemId(item.getId());
+        saveComment("second");
+
+        assertEquals(2, commentRepository.findAllByItemId(item.getId()).size());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    private void saveComment(String text) {
+        commentRepository.save(Comment.builder()
+                .text(text)
+                .itemId(item.getId())
+                .author(user)
+                .created(LocalDateTime.now())
+                .build());
+    }
+}
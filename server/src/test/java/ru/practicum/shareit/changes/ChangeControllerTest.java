@@ -0,0 +1,77 @@
+package ru.practicum.shareit.changes;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Mock
+    private ChangeService changeService;
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void startUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(changeController)
+                .build();
+    }
+
+    @SneakyThrows
+    @Test
+    void getChanges_whenSinceGiven_thenReturnDeltaAndToken() {
+
+        ChangesDto changes = ChangesDto.builder()
+                .token(151)
+                .hasMore(false)
+                .bookings(List.of())
+                .items(List.of(new ItemShortDto(1L, "drill", "drill", true, null)))
+                .comments(List.of())
+                .requests(List.of())
+                .build();
+        when(changeService.getChanges(1L, 100L)).thenReturn(changes);
+
+        mockMvc.perform(get("/changes")
+                        .param("since", "100")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(151))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.items[0].name").value("drill"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getChanges_whenNoSince_thenFullSyncRequested() {
+
+        when(changeService.getChanges(1L, 0L)).thenReturn(new ChangesDto());
+
+        mockMvc.perform(get("/changes")
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isOk());
+    }
+}
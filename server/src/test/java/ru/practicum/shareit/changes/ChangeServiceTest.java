@@ -0,0 +1,235 @@
+package ru.practicum.shareit.changes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "shareit.changes.limit=2")
+@Import({ChangeServiceImpl.class, ChangeSequence.class, IdValidator.class, HibernateCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChangeServiceTest {
+
+    @Autowired
+    ChangeService changeService;
+
+    @Autowired
+    ChangeSequence changeSequence;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    RequestRepository requestRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.of(2023, 3, 1, 12, 0, 0);
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    @BeforeEach
+    void startUp() {
+
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        User stranger = userRepository.save(User.builder().name("stranger").email("stranger@mail.ru").build());
+
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .description("need a drill")
+                .requestor(booker)
+                .created(now)
+                .build());
+        item = saveItem(owner, "drill", request.getId());
+        saveItem(stranger, "saw", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from item_requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void getChanges_whenFirstSync_thenOnlyRowsRelevantToUserReturned() {
+
+        Booking booking = saveBooking(now.plusDays(1));
+        Comment comment = commentRepository.save(Comment.builder()
+                .text("good drill")
+                .itemId(item.getId())
+                .author(booker)
+                .created(now)
+                .build());
+
+        ChangesDto ownerChanges = changeService.getChanges(owner.getId(), 0);
+        ChangesDto bookerChanges = changeService.getChanges(booker.getId(), 0);
+
+        assertEquals(List.of(booking.getId()), bookingIds(ownerChanges));
+        assertEquals(List.of(item.getId()), ownerChanges.getItems().stream().map(ItemShortDto::getId)
+                .collect(Collectors.toList()));
+        assertEquals(comment.getId(), ownerChanges.getComments().get(0).getId());
+        assertEquals(item.getId(), ownerChanges.getComments().get(0).getItemId());
+        assertTrue(ownerChanges.getRequests().isEmpty());
+        assertFalse(ownerChanges.isHasMore());
+
+        assertEquals(List.of(booking.getId()), bookingIds(bookerChanges));
+        assertEquals("drill", bookerChanges.getItems().get(0).getName());
+        assertEquals(1, bookerChanges.getComments().size());
+        assertEquals("need a drill", bookerChanges.getRequests().get(0).getDescription());
+        assertTrue(ownerChanges.getToken() >= comment.getChangeSeq());
+    }
+
+    @Test
+    void getChanges_whenSinceToken_thenOnlyLaterChangesReturned() {
+
+        Booking booking = saveBooking(now.plusDays(1));
+        long token = changeService.getChanges(owner.getId(), 0).getToken();
+
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        ChangesDto changes = changeService.getChanges(owner.getId(), token);
+        ChangesDto nothing = changeService.getChanges(owner.getId(), changes.getToken());
+
+        assertEquals(1, changes.getBookings().size());
+        assertEquals(BookingStatus.APPROVED, changes.getBookings().get(0).getStatus());
+        assertTrue(changes.getItems().isEmpty());
+        assertTrue(changes.getToken() > token);
+        assertTrue(nothing.getBookings().isEmpty());
+        assertTrue(nothing.getItems().isEmpty());
+        assertEquals(changes.getToken(), nothing.getToken());
+    }
+
+    @Test
+    void getChanges_whenMoreThanLimit_thenReturnedInPages() {
+
+        saveItem(owner, "hammer", null);
+        saveItem(owner, "ladder", null);
+
+        ChangesDto first = changeService.getChanges(owner.getId(), 0);
+        ChangesDto second = changeService.getChanges(owner.getId(), first.getToken());
+
+        assertEquals(List.of("drill", "hammer"), itemNames(first));
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("ladder"), itemNames(second));
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void getChanges_whenBatchSharesChangeSeq_thenWholeBatchReturnedTogether() {
+
+        List<Long> ids = List.of(saveBooking(now.plusDays(1)).getId(), saveBooking(now.plusDays(2)).getId(),
+                saveBooking(now.plusDays(3)).getId());
+        long token = drain(owner.getId());
+
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.updateStatusByIdInAndStatus(ids,
+                BookingStatus.WAITING, BookingStatus.APPROVED, changeSequence.next()));
+        ChangesDto changes = changeService.getChanges(owner.getId(), token);
+
+        assertEquals(3, changes.getBookings().size());
+        assertTrue(changes.getBookings().stream().allMatch(b -> b.getStatus() == BookingStatus.APPROVED));
+        assertTrue(changeService.getChanges(owner.getId(), changes.getToken()).getBookings().isEmpty());
+    }
+
+    @Test
+    void visibleUpTo_whenTransactionInFlight_thenTokenStopsBeforeIt() {
+
+        long before = changeSequence.visibleUpTo();
+
+        long allocated = transactionTemplate.execute(status -> {
+            long value = changeSequence.next();
+            assertEquals(value - 1, changeSequence.visibleUpTo());
+            return value;
+        });
+
+        assertTrue(allocated > before);
+        assertTrue(changeSequence.visibleUpTo() >= allocated);
+        assertThrows(IllegalStateException.class, () -> changeSequence.next());
+    }
+
+    private long drain(Long userId) {
+
+        ChangesDto changes = changeService.getChanges(userId, 0);
+        while (changes.isHasMore()) {
+            changes = changeService.getChanges(userId, changes.getToken());
+        }
+        return changes.getToken();
+    }
+
+    private Item saveItem(User itemOwner, String name, Long requestId) {
+
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(name + " description")
+                .owner(itemOwner)
+                .available(true)
+                .requestId(requestId)
+                .build());
+    }
+
+    private Booking saveBooking(LocalDateTime start) {
+
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    private static List<Long> bookingIds(ChangesDto changes) {
+        return changes.getBookings().stream().map(BookingDtoResponse::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> itemNames(ChangesDto changes) {
+        return changes.getItems().stream().map(ItemShortDto::getName).collect(Collectors.toList());
+    }
+}
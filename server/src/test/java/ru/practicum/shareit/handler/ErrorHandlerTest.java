@@ -2,10 +2,16 @@ package ru.practicum.shareit.handler;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.exception.BookingException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.exception.PaginationException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 public class ErrorHandlerTest {
 
@@ -48,6 +54,16 @@ public class ErrorHandlerTest {
         assertEquals(bookingException.getMessage(), response.getError());
     }
 
+    @Test
+    void handlePaginationException() {
+
+        PaginationException paginationException = new PaginationException("bad cursor");
+
+        ErrorResponse response = errorHandler.handlePaginationException(paginationException);
+
+        assertEquals(paginationException.getMessage(), response.getError());
+    }
+
     @Test
     void handleOthersExceptions() {
 
@@ -57,4 +73,45 @@ public class ErrorHandlerTest {
 
         assertEquals(throwable.getMessage(), response.getError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleConflictException() {
+
+        ConflictException conflictException = new ConflictException("batch lost a race");
+
+        ErrorResponse response = errorHandler.handleConflictException(conflictException);
+
+        assertEquals(conflictException.getMessage(), response.getError());
+    }
+
+    @Test
+    void handlePreconditionFailedException() {
+
+        PreconditionFailedException preconditionFailedException = new PreconditionFailedException("stale version");
+
+        ErrorResponse response = errorHandler.handlePreconditionFailedException(preconditionFailedException);
+
+        assertEquals(preconditionFailedException.getMessage(), response.getError());
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException() {
+
+        ObjectOptimisticLockingFailureException lockingFailureException =
+                new ObjectOptimisticLockingFailureException("Booking", 1L);
+
+        ErrorResponse response = errorHandler.handleOptimisticLockingFailureException(lockingFailureException);
+
+        assertNotNull(response.getError());
+    }
+
+    @Test
+    void handleIdempotencyKeyReusedException() {
+
+        IdempotencyKeyReusedException reusedException = new IdempotencyKeyReusedException("key reused");
+
+        ErrorResponse response = errorHandler.handleIdempotencyKeyReusedException(reusedException);
+
+        assertEquals(reusedException.getMessage(), response.getError());
+    }
+}
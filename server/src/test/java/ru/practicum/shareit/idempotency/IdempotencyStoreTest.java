@@ -0,0 +1,152 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import({HibernateCacheConfig.class, ChangeSequence.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyStoreTest {
+
+    private static final String KEY = "5f0c7a2e-1d7b-4c55-9a61-0b1f9d3a7e42";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void startUp() {
+        store = newStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from idempotency_keys");
+    }
+
+    @Test
+    void execute_whenNoKey_thenActionRunsEveryTime() {
+
+        store.execute(1L, null, "POST /items", Map.of("name", "drill"), this::create);
+        store.execute(1L, null, "POST /items", Map.of("name", "drill"), this::create);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from idempotency_keys", Integer.class));
+    }
+
+    @Test
+    void execute_whenKeyRepeated_thenStoredResponseReplayed() {
+
+        ResponseEntity<Object> first = store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+        ResponseEntity<Object> second = store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+
+        assertEquals(1, calls.get());
+        assertEquals(Map.of("id", 1), first.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("{\"id\":1}", new String((byte[]) second.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void execute_whenFrontCacheIsCold_thenReplayedFromDatabase() {
+
+        store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+        ResponseEntity<Object> replayed = newStore().execute(1L, KEY, "POST /items", Map.of("name", "drill"),
+                this::create);
+
+        assertEquals(1, calls.get());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_whenSameKeyFromAnotherUser_thenActionRuns() {
+
+        store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+        store.execute(2L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_whenKeyReusedForAnotherRequest_thenExceptionThrown() {
+
+        store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute(1L, KEY, "POST /items", Map.of("name", "saw"), this::create));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute(1L, KEY, "POST /requests", Map.of("name", "drill"), this::create));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_whenActionFails_thenKeyReleased() {
+
+        assertThrows(IllegalStateException.class, () -> store.execute(1L, KEY, "POST /items",
+                Map.of("name", "drill"), () -> {
+                    throw new IllegalStateException("fail");
+                }));
+        ResponseEntity<Object> retried = store.execute(1L, KEY, "POST /items", Map.of("name", "drill"),
+                this::create);
+
+        assertEquals(Map.of("id", 1), retried.getBody());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void purgeExpired_whenKeyOlderThanTtl_thenRemoved() {
+
+        store.execute(1L, KEY, "POST /items", Map.of("name", "drill"), this::create);
+        jdbcTemplate.update("insert into idempotency_keys (user_id, idempotency_key, request_hash, response, created) " +
+                " values (1, 'old', 'hash', '{}', ?)", Timestamp.valueOf(LocalDateTime.now().minusDays(2)));
+
+        store.purgeExpired();
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from idempotency_keys", Integer.class));
+    }
+
+    private Map<String, Integer> create() {
+        return Map.of("id", calls.incrementAndGet());
+    }
+
+    private IdempotencyStore newStore() {
+        return new IdempotencyStore(jdbcTemplate, transactionTemplate, objectMapper, Duration.ofDays(1), 100,
+                new SimpleMeterRegistry());
+    }
+}
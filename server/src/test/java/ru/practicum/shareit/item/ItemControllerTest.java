@@ -9,10 +9,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.bulk.ImportReport;
+import ru.practicum.shareit.conditional.Versioned;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
@@ -20,14 +26,18 @@ import ru.practicum.shareit.item.dto.ItemShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -46,6 +56,12 @@ public class ItemControllerTest {
     @Mock
     private ItemServiceImpl itemService;
 
+    @Mock
+    private ItemImporter itemImporter;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
     private ItemShortDto itemShortDto;
 
     private ItemShortDto itemRequest;
@@ -57,6 +73,9 @@ public class ItemControllerTest {
     @BeforeEach
     void startUp() {
 
+        lenient().when(idempotencyStore.execute(anyLong(), any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.<Supplier<?>>getArgument(4).get()));
+
         mockMvc = MockMvcBuilders
                 .standaloneSetup(itemController)
                 .build();
@@ -81,8 +100,6 @@ public class ItemControllerTest {
                 .description("item description")
                 .available(true)
                 .requestId(1L)
-                .lastBooking(null)
-                .nextBooking(null)
                 .comments(List.of())
                 .build();
     }
@@ -106,13 +123,34 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemShortDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void importItems_whenNdjsonBody_thenReturnReport() {
+
+        ImportReport report = new ImportReport(10);
+        report.setTotal(2);
+        report.accepted(1);
+        report.rejected(2, "Запрос с id 99 не существует");
+        when(itemImporter.importItems(eq(1L), any())).thenReturn(report);
+
+        mockMvc.perform(post("/items/import")
+                        .content("{\"name\":\"Item\"}\n{\"name\":\"Item\",\"requestId\":99}\n")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+    }
+
     @SneakyThrows
     @Test
     void updateItem_whenValidItem_thenReturnItem() {
 
         Long itemId = 1L;
 
-        when(itemService.updateItem(any(ItemShortDto.class), anyLong(), anyLong())).thenReturn(itemShortDto);
+        when(itemService.updateItem(any(ItemShortDto.class), anyLong(), anyLong(), isNull()))
+                .thenReturn(itemShortDto);
 
 
         String result = mockMvc.perform(patch("/items/{itemId}", itemId)
@@ -128,12 +166,42 @@ public class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(itemShortDto), result);
     }
 
+    @SneakyThrows
+    @Test
+    void updateItem_whenIfMatch_thenVersionPassedAndNoETagReturned() {
+
+        when(itemService.updateItem(any(ItemShortDto.class), eq(1L), eq(1L), eq(4L)))
+                .thenReturn(itemShortDto);
+
+        mockMvc.perform(patch("/items/{itemId}", 1L)
+                        .content(objectMapper.writeValueAsString(itemRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, "1")
+                        .header(HttpHeaders.IF_MATCH, "\"4-1f\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenIfNoneMatchIsCurrent_thenNotModifiedWithoutBody() {
+
+        when(itemService.getItemById(1L, 1L)).thenReturn(new Versioned<>(itemResponseDto, "\"0-1f\""));
+
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header(USER_HEADER, "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-2a\", \"0-1f\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-1f\""))
+                .andExpect(content().string(""));
+    }
+
     @SneakyThrows
     @Test
     void getItem_whenValidId_thenReturnItem() {
 
         Long itemId = 1L;
-        when(itemService.getItemById(anyLong(), anyLong())).thenReturn(itemResponseDto);
+        when(itemService.getItemById(anyLong(), anyLong())).thenReturn(new Versioned<>(itemResponseDto, "\"0-1f\""));
 
         String result = mockMvc.perform(get("/items/{itemId}", itemId)
                         .content(objectMapper.writeValueAsString(itemRequest))
@@ -267,4 +335,21 @@ public class ItemControllerTest {
                 .getResponse()
                 .getContentAsString();
     }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_whenPeriodGiven_thenReturnFreeWindows() {
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+
+        when(itemService.getAvailability(1L, from, to)).thenReturn(List.of(new FreeWindowDto(from, to)));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00")
+                        .header(USER_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)));
+    }
 }
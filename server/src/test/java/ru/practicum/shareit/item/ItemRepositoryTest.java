@@ -1,19 +1,30 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
+@Import({HibernateCacheConfig.class, ChangeSequence.class})
 public class ItemRepositoryTest {
 
     @Autowired
@@ -22,29 +33,35 @@ public class ItemRepositoryTest {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private User user;
+
+    private Item item;
+
     @BeforeEach
     void startUp() {
 
-        User user = User.builder()
-                .id(1L)
+        user = User.builder()
                 .name("name")
                 .email("user@mail.ru")
                 .build();
 
-        userRepository.save(user);
+        user = userRepository.save(user);
 
-        Item item = Item.builder()
-                .id(1L)
+        item = Item.builder()
                 .name("item")
                 .description("item description")
                 .owner(user)
                 .available(true)
                 .requestId(null)
-                .lastBooking(null)
-                .nextBooking(null)
                 .build();
 
-        itemRepository.save(item);
+        item = itemRepository.save(item);
     }
 
     @Test
@@ -56,8 +73,48 @@ public class ItemRepositoryTest {
         assertEquals("item description", actualItems.get(0).getDescription());
     }
 
+    @Test
+    void search_whenNameMatchesUnavailableItem_thenItemNotReturned() {
+
+        itemRepository.save(Item.builder()
+                .name("hidden item")
+                .description("unavailable")
+                .owner(user)
+                .available(false)
+                .build());
+
+        List<Item> actualItems = itemRepository.search("hidden",
+                Pagination.withoutSort(0, 10));
+
+        assertEquals(0, actualItems.size());
+    }
+
+    @Test
+    void findAllByItemIdIn_whenCommentsExist_thenAuthorsFetchedInOneStatement() {
+
+        commentRepository.save(Comment.builder()
+                .text("comment")
+                .itemId(item.getId())
+                .author(user)
+                .created(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Set<Comment> comments = commentRepository.findAllByItemIdIn(Set.of(item.getId()));
+
+        assertEquals(1, comments.size());
+        assertEquals("name", comments.iterator().next().getAuthor().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
     @AfterEach
     void tearDown() {
+        commentRepository.deleteAll();
         itemRepository.deleteAll();
         userRepository.deleteAll();
     }
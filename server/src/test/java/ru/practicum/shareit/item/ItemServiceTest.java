@@ -1,17 +1,26 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingCalendar;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.dto.ItemTimelineDto;
+import ru.practicum.shareit.conditional.ETags;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
@@ -19,14 +28,20 @@ import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxWriter;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -36,9 +51,10 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class ItemServiceTest {
 
-    @InjectMocks
     private ItemServiceImpl itemService;
 
+    private IdValidator idValidator;
+
     @Mock
     private ItemRepository itemRepository;
 
@@ -54,6 +70,22 @@ public class ItemServiceTest {
     @Mock
     RequestRepository requestRepository;
 
+    @Mock
+    private BookingTimeline bookingTimeline;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private BookingCalendar bookingCalendar;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Spy
+    private ItemViewCache itemViewCache = new ItemViewCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30),
+            new SimpleMeterRegistry());
+
     @Captor
     private ArgumentCaptor<Item> argumentCaptor;
 
@@ -68,6 +100,11 @@ public class ItemServiceTest {
 
     @BeforeEach
     void startUp() {
+        idValidator = new IdValidator(userRepository, itemRepository, requestRepository, 1024,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        itemService = new ItemServiceImpl(itemRepository, bookingRepository, commentRepository, bookingTimeline,
+                itemSearchEngine, bookingCalendar, itemViewCache, idValidator, outboxWriter);
+
         pageable = Pagination.withoutSort(0, 10);
 
         user = User.builder()
@@ -83,9 +120,6 @@ public class ItemServiceTest {
                 .owner(user)
                 .available(true)
                 .requestId(null)
-                .lastBooking(null)
-                .nextBooking(null)
-                .requestId(null)
                 .build();
 
     }
@@ -94,14 +128,17 @@ public class ItemServiceTest {
     @Test
     void createItem_whenUserValidAndItemRequestValid_thenReturnItem() {
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(itemRepository.save(ItemMapper.toItem(itemShortDto, user))).thenReturn(item);
 
         ItemShortDto actual = itemService.createItem(new ItemShortDto(), user.getId());
 
         assertEquals(ItemMapper.toItemShortDto(item), actual);
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).existsById(1L);
         verify(itemRepository, times(1)).save(ItemMapper.toItem(itemShortDto, user));
+        verify(itemSearchEngine, times(1)).index(item);
+        verify(outboxWriter, times(1)).append(OutboxEvent.ITEM, item.getId(), OutboxEvent.ITEM_CREATED, actual);
     }
 
     @SneakyThrows
@@ -110,12 +147,13 @@ public class ItemServiceTest {
 
         final Long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.createItem(itemShortDto, userId));
         verify(itemRepository, never()).save(ItemMapper.toItem(itemShortDto, user));
-        verify(requestRepository, never()).findById(itemShortDto.getRequestId());
-        verify(userRepository, times(1)).findById(userId);
+        verifyNoInteractions(outboxWriter);
+        verify(requestRepository, never()).existsById(itemShortDto.getRequestId());
+        verify(userRepository, times(1)).existsById(userId);
     }
 
     @SneakyThrows
@@ -127,13 +165,14 @@ public class ItemServiceTest {
 
         final Long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(requestRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(requestRepository.existsById(99L)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.createItem(itemShortDto1, userId));
         verify(itemRepository, never()).save(ItemMapper.toItem(itemShortDto1, user));
-        verify(userRepository, times(1)).findById(userId);
-        verify(requestRepository, times(1)).findById(itemShortDto1.getRequestId());
+        verify(userRepository, times(1)).existsById(userId);
+        verify(requestRepository, times(1)).existsById(itemShortDto1.getRequestId());
     }
 
     @SneakyThrows
@@ -150,16 +189,16 @@ public class ItemServiceTest {
                 .available(true)
                 .build();
 
-        ItemShortDto actual = itemService.updateItem(itemShortDto1, user.getId(), item.getId());
+        ItemShortDto actual = itemService.updateItem(itemShortDto1, user.getId(), item.getId(), null);
 
         assertEquals(itemShortDto1, actual);
-        verify(itemRepository).save(argumentCaptor.capture());
+        verify(itemRepository).saveAndFlush(argumentCaptor.capture());
 
         Item actualItem = argumentCaptor.getValue();
 
         assertEquals("another item", actualItem.getName());
         assertEquals("another ordinary item for human beings", actualItem.getDescription());
-
+        verify(itemSearchEngine, times(1)).index(actualItem);
     }
 
     @SneakyThrows
@@ -169,12 +208,27 @@ public class ItemServiceTest {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
-                () -> itemService.updateItem(itemShortDto, user.getId(), item.getId()));
+                () -> itemService.updateItem(itemShortDto, user.getId(), item.getId(), null));
 
-        verify(itemRepository, never()).save(ItemMapper.toItem(itemShortDto, user));
+        verify(itemRepository, never()).saveAndFlush(ItemMapper.toItem(itemShortDto, user));
         verify(requestRepository, never()).findById(itemShortDto.getRequestId());
     }
 
+    @SneakyThrows
+    @Test
+    void updateItem_whenVersionIsStale_thenExceptionThrown() {
+
+        item.setVersion(2L);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> itemService.updateItem(itemShortDto, user.getId(), item.getId(), 1L));
+
+        assertEquals("item", item.getName());
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+        verify(itemViewCache, never()).evict(anyLong());
+    }
+
     @SneakyThrows
     @Test
     void updateItem_whenNameAndDescriptionAreEmptyAndAvailableIsNull_thenReturnOldItem() {
@@ -189,10 +243,10 @@ public class ItemServiceTest {
                 .available(null)
                 .build();
 
-        ItemShortDto actualItemDto = itemService.updateItem(newItem, user.getId(), item.getId());
+        ItemShortDto actualItemDto = itemService.updateItem(newItem, user.getId(), item.getId(), null);
         assertNotEquals(newItem, actualItemDto);
 
-        verify(itemRepository).save(argumentCaptor.capture());
+        verify(itemRepository).saveAndFlush(argumentCaptor.capture());
         Item actualItem = argumentCaptor.getValue();
 
         assertEquals("item", actualItem.getName());
@@ -203,12 +257,15 @@ public class ItemServiceTest {
     @Test
     void getItem_whenValidItemIdAndOwnerId_thenReturnOwnersItem() {
 
+        ItemTimelineDto timeline = new ItemTimelineDto(new BookingItemDto(1L, 2L), new BookingItemDto(3L, 2L));
+
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
+        when(bookingTimeline.findByItemId(eq(item.getId()), any(LocalDateTime.class))).thenReturn(timeline);
 
-        ItemResponseDto actualItem = itemService.getItemById(item.getId(), user.getId());
+        ItemResponseDto actualItem = itemService.getItemById(item.getId(), user.getId()).getBody();
 
-        assertEquals(ItemMapper.toItemResponseDto(item, List.of()), actualItem);
+        assertEquals(ItemMapper.toItemResponseDto(item, timeline, List.of()), actualItem);
         verify(itemRepository, times(1)).findById(user.getId());
         verify(commentRepository, times(1)).findAllByItemId(item.getId());
     }
@@ -220,11 +277,12 @@ public class ItemServiceTest {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
 
-        ItemResponseDto actualItem = itemService.getItemById(item.getId(), 99L);
+        ItemResponseDto actualItem = itemService.getItemById(item.getId(), 99L).getBody();
 
         assertEquals(ItemMapper.toItemResponseDto(item, List.of()), actualItem);
         verify(itemRepository, times(1)).findById(user.getId());
         verify(commentRepository, times(1)).findAllByItemId(item.getId());
+        verifyNoInteractions(bookingTimeline);
     }
 
     @SneakyThrows
@@ -234,7 +292,9 @@ public class ItemServiceTest {
         List<Item> items = new ArrayList<>();
         items.add(item);
 
-        when(itemRepository.findAllItemsByOwnerId(user.getId(), pageable)).thenReturn(items);
+        Pageable sortedPageable = Pagination.withSort(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+
+        when(itemRepository.findAllItemsByOwnerId(user.getId(), sortedPageable)).thenReturn(items);
 
         when(commentRepository.findAllByItemIdIn(anySet())).thenReturn(Set.of());
 
@@ -242,7 +302,127 @@ public class ItemServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(ItemMapper.toItemResponseDto(item, List.of()), actualList.get(0));
-        verify(itemRepository, times(1)).findAllItemsByOwnerId(user.getId(), pageable);
+        verify(itemRepository, times(1)).findAllItemsByOwnerId(user.getId(), sortedPageable);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsByUser_whenItemsHaveBookings_thenTimelineLoadedOnceForPage() {
+
+        Item secondItem = Item.builder()
+                .id(2L)
+                .name("second item")
+                .description("second item description")
+                .owner(user)
+                .available(true)
+                .build();
+        ItemTimelineDto timeline = new ItemTimelineDto(new BookingItemDto(1L, 2L), null);
+
+        when(itemRepository.findAllItemsByOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(item, secondItem));
+        when(commentRepository.findAllByItemIdIn(anySet())).thenReturn(Set.of());
+        when(bookingTimeline.findByItemIds(eq(Set.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), timeline));
+
+        List<ItemResponseDto> actualList = itemService.getItemsByUser(user.getId(), 0, 10);
+
+        assertEquals(ItemMapper.toItemResponseDto(item, timeline, List.of()), actualList.get(0));
+        assertEquals(ItemMapper.toItemResponseDto(secondItem, List.of()), actualList.get(1));
+        verify(bookingTimeline, times(1)).findByItemIds(anySet(), any(LocalDateTime.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemsByUser_whenCursor_thenReturnItemsAfterCursorInOrder() {
+
+        Item nextItem = Item.builder()
+                .id(7L)
+                .name("next item")
+                .description("next item description")
+                .owner(user)
+                .available(true)
+                .build();
+
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(user.getId(), 5L, Pagination.keyset(10)))
+                .thenReturn(List.of(nextItem, item));
+        when(commentRepository.findAllByItemIdIn(anySet())).thenReturn(Set.of());
+
+        List<ItemResponseDto> actualList = itemService.getItemsByUser(user.getId(), PageCursor.of(null, 5L), 10);
+
+        assertEquals(2, actualList.size());
+        assertEquals(nextItem.getId(), actualList.get(0).getId());
+        assertEquals(item.getId(), actualList.get(1).getId());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenRequestedTwice_thenLoadedOnce() {
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
+
+        ItemResponseDto first = itemService.getItemById(item.getId(), 99L).getBody();
+        ItemResponseDto second = itemService.getItemById(item.getId(), 98L).getBody();
+
+        assertEquals(first, second);
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(commentRepository, times(1)).findAllByItemId(item.getId());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenOwnerAndNonOwnerRequest_thenShapesCachedSeparately() {
+
+        ItemTimelineDto timeline = new ItemTimelineDto(new BookingItemDto(1L, 2L), new BookingItemDto(3L, 2L));
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
+        when(bookingTimeline.findByItemId(eq(item.getId()), any(LocalDateTime.class))).thenReturn(timeline);
+
+        ItemResponseDto ownerItem = itemService.getItemById(item.getId(), user.getId()).getBody();
+        ItemResponseDto otherItem = itemService.getItemById(item.getId(), 99L).getBody();
+        itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(timeline.getLastBooking(), ownerItem.getLastBooking());
+        assertNull(otherItem.getLastBooking());
+        assertNull(otherItem.getNextBooking());
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(bookingTimeline, times(1)).findByItemId(eq(item.getId()), any(LocalDateTime.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenOwnerAndNonOwnerRequest_thenETagsDifferButShareVersion() {
+
+        ItemTimelineDto timeline = new ItemTimelineDto(new BookingItemDto(1L, 2L), new BookingItemDto(3L, 2L));
+
+        item.setVersion(4L);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
+        when(bookingTimeline.findByItemId(eq(item.getId()), any(LocalDateTime.class))).thenReturn(timeline);
+
+        String ownerETag = itemService.getItemById(item.getId(), user.getId()).getETag();
+        String otherETag = itemService.getItemById(item.getId(), 99L).getETag();
+
+        assertNotEquals(ownerETag, otherETag);
+        assertEquals(otherETag, itemService.getItemById(item.getId(), 98L).getETag());
+        assertEquals(4L, ETags.version(ownerETag));
+        assertEquals(4L, ETags.version(otherETag));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItem_whenItemUpdated_thenCacheEvicted() {
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of());
+
+        itemService.getItemById(item.getId(), 99L);
+        itemService.updateItem(ItemShortDto.builder().name("new name").build(), user.getId(), item.getId(), null);
+        ItemResponseDto actualItem = itemService.getItemById(item.getId(), 99L).getBody();
+
+        assertEquals("new name", actualItem.getName());
+        verify(itemViewCache).evict(item.getId());
+        verify(commentRepository, times(2)).findAllByItemId(item.getId());
     }
 
     @SneakyThrows
@@ -264,13 +444,38 @@ public class ItemServiceTest {
 
         String text = "item";
 
-        when(itemRepository.search("item", pageable)).thenReturn(List.of(item));
+        when(itemSearchEngine.search("item", pageable)).thenReturn(List.of(item));
 
         List<ItemShortDto> actualList = itemService.getItemsBySearchQuery(text, 0, 10);
 
         assertEquals(1, actualList.size());
         assertEquals(ItemMapper.toItemShortDto(item), actualList.get(0));
-        verify(itemRepository, times(1)).search(text, pageable);
+        verify(itemSearchEngine, times(1)).search(text, pageable);
+    }
+
+    @Test
+    void getAvailability_whenItemAvailable_thenReturnFreeWindows() {
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        List<FreeWindowDto> windows = List.of(new FreeWindowDto(from, to));
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingCalendar.freeWindows(item.getId(), from, to)).thenReturn(windows);
+
+        assertEquals(windows, itemService.getAvailability(item.getId(), from, to));
+    }
+
+    @Test
+    void getAvailability_whenItemUnavailable_thenReturnEmptyList() {
+
+        item.setAvailable(false);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertTrue(itemService.getAvailability(item.getId(), from, from.plusDays(1)).isEmpty());
+        verifyNoInteractions(bookingCalendar);
     }
 
     @SneakyThrows
@@ -288,8 +493,8 @@ public class ItemServiceTest {
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
-        when(bookingRepository.existsByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(),
-                any(LocalDateTime.class))).thenReturn(true);
+        when(bookingRepository.findIdsByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(1L));
 
         CommentDto actualComment = itemService.createComment(user.getId(), item.getId(), new CommentShortDto());
 
@@ -307,7 +512,8 @@ public class ItemServiceTest {
                 () -> itemService.createComment(user.getId(), item.getId(), new CommentShortDto()));
 
         verify(commentRepository, never()).save(new Comment());
-        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findIdsByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(),
+                any(LocalDateTime.class), any(Pageable.class));
         verify(userRepository, times(1)).findById(user.getId());
 
     }
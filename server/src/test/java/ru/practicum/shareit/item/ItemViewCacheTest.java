@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemViewCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ItemViewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemViewCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30), meterRegistry);
+    }
+
+    @Test
+    void getView_whenConcurrentMisses_thenLoaderCalledOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<ItemViewCache.ItemView>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.getView(1L, id -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return new ItemViewCache.ItemView(2L, 0L, ItemResponseDto.builder().id(id).build());
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ItemViewCache.ItemView> future : futures) {
+                assertEquals(1L, future.get(5, TimeUnit.SECONDS).getItem().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_whenNoTransaction_thenNextGetReloads() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOwnerView(1L, id -> ItemResponseDto.builder().id(id + loads.incrementAndGet()).build());
+        cache.evict(1L);
+        ItemResponseDto reloaded = cache.getOwnerView(1L,
+                id -> ItemResponseDto.builder().id(id + loads.incrementAndGet()).build());
+
+        assertEquals(3L, reloaded.getId());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getView_whenHitAndMiss_thenMetricsRecorded() {
+        cache.getView(1L, id -> new ItemViewCache.ItemView(2L, 0L, ItemResponseDto.builder().id(id).build()));
+        cache.getView(1L, id -> new ItemViewCache.ItemView(2L, 0L, ItemResponseDto.builder().id(id).build()));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "shareit.items").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "shareit.items").tag("result", "miss")
+                .functionCounter().count());
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", "shareit.items").functionCounter());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.Pagination;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MemoryItemSearchEngine searchEngine;
+
+    private final Pageable pageable = Pagination.withoutSort(0, 10);
+
+    @BeforeEach
+    void startUp() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        searchEngine = new MemoryItemSearchEngine(itemRepository, meterRegistry);
+    }
+
+    @Test
+    void search_whenNotLoaded_thenDelegateToRepository() {
+
+        when(itemRepository.search("дрель", pageable)).thenReturn(List.of(item(1L, "Дрель", "", true)));
+
+        assertEquals(1, searchEngine.search("дрель", pageable).size());
+        verify(itemRepository, times(1)).search("дрель", pageable);
+    }
+
+    @Test
+    void search_whenLoaded_thenMatchSubstringsOfNameAndDescription() {
+
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, Pagination.keyset(1000)))
+                .thenReturn(List.of(
+                        item(1L, "Дрель", "Простая дрель", true),
+                        item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                        item(3L, "Дрель ударная", "Мощная", false),
+                        item(4L, "Пила", "Электрическая, как дрель", true)));
+
+        searchEngine.load();
+
+        assertEquals(List.of(1L, 4L), ids(searchEngine.search("ДРЕЛЬ", pageable)));
+        assertEquals(List.of(2L), ids(searchEngine.search("аккум", pageable)));
+        assertEquals(List.of(4L), ids(searchEngine.search("дрель", Pagination.withoutSort(1, 1))));
+        assertTrue(searchEngine.search("рельс", pageable).isEmpty());
+        verify(itemRepository, never()).search(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void search_whenNeedleShorterThanGram_thenDelegateToRepository() {
+
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, Pagination.keyset(1000)))
+                .thenReturn(List.of(item(1L, "Дрель", "Простая дрель", true)));
+        when(itemRepository.search("др", pageable)).thenReturn(List.of(item(1L, "Дрель", "", true)));
+
+        searchEngine.load();
+
+        assertEquals(List.of(1L), ids(searchEngine.search("др", pageable)));
+        verify(itemRepository, times(1)).search("др", pageable);
+    }
+
+    @Test
+    void load_whenItemChangedAfterSnapshotRead_thenStaleSnapshotNotRestored() {
+
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, Pagination.keyset(1000)))
+                .thenAnswer(invocation -> {
+                    searchEngine.index(item(1L, "Дрель", "Простая дрель", false));
+                    searchEngine.index(item(2L, "Перфоратор", "Мощный", true));
+                    return List.of(item(1L, "Дрель", "Простая дрель", true), item(2L, "Молоток", "", true));
+                });
+
+        searchEngine.load();
+
+        assertTrue(searchEngine.search("дрель", pageable).isEmpty());
+        assertTrue(searchEngine.search("молот", pageable).isEmpty());
+        assertEquals(List.of(2L), ids(searchEngine.search("перфо", pageable)));
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTextAndUnavailableItemsNotFound() {
+
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, Pagination.keyset(1000))).thenReturn(List.of());
+
+        searchEngine.load();
+        searchEngine.index(item(1L, "Дрель", "Простая", true));
+        searchEngine.index(item(1L, "Перфоратор", "Простой", true));
+
+        assertTrue(searchEngine.search("дрель", pageable).isEmpty());
+        assertEquals(List.of(1L), ids(searchEngine.search("перфо", pageable)));
+
+        searchEngine.index(item(1L, "Перфоратор", "Простой", false));
+
+        assertTrue(searchEngine.search("перфо", pageable).isEmpty());
+
+        searchEngine.index(item(1L, "Перфоратор", "Простой", true));
+
+        assertEquals(List.of(1L), ids(searchEngine.search("перфо", pageable)));
+    }
+
+    @Test
+    void metrics_whenItemsIndexed_thenReportSizeAndMemory() {
+
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, Pagination.keyset(1000)))
+                .thenReturn(List.of(item(1L, "Дрель", "Простая дрель", true)));
+
+        searchEngine.load();
+
+        assertEquals(1.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertTrue(meterRegistry.get("shareit.search.index.bytes").gauge().value() > 0);
+        assertEquals(meterRegistry.get("shareit.search.index.bytes").gauge().value(),
+                meterRegistry.get("shareit.search.index.bytes.per.item").gauge().value());
+
+        searchEngine.index(item(1L, "Дрель", "Простая дрель", false));
+
+        assertEquals(0.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertEquals(0.0, meterRegistry.get("shareit.search.index.bytes").gauge().value());
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+
+    private List<Long> ids(List<Item> items) {
+
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
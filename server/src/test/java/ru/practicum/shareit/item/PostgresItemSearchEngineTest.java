@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.Pagination;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostgresItemSearchEngineTest {
+
+    @InjectMocks
+    private PostgresItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void toPrefixQuery_whenSeveralWords_thenReturnPrefixConjunction() {
+
+        assertEquals("дрел:* & bosch:*", PostgresItemSearchEngine.toPrefixQuery(" Дрел, BOSCH! "));
+        assertEquals("", PostgresItemSearchEngine.toPrefixQuery("&|!:*'"));
+    }
+
+    @Test
+    void search_whenTextValid_thenFullTextQueryUsed() {
+
+        Pageable pageable = Pagination.withoutSort(0, 10);
+        Item item = Item.builder().id(1L).name("Дрель").build();
+
+        when(itemRepository.searchFullText("дрель:*", pageable)).thenReturn(List.of(item));
+
+        assertEquals(List.of(item), searchEngine.search("дрель", pageable));
+    }
+
+    @Test
+    void search_whenTextHasNoWords_thenRepositoryNotCalled() {
+
+        assertTrue(searchEngine.search("!!!", Pagination.withoutSort(0, 10)).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.HibernateCacheConfig;
+import ru.practicum.shareit.changes.ChangeSequence;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"shareit.outbox.relay.interval=PT1H", "shareit.outbox.relay.batch-size=2"})
+@AutoConfigureJson
+@Import({OutboxWriter.class, OutboxRelay.class, InMemoryOutboxBus.class, HibernateCacheConfig.class,
+        ChangeSequence.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OutboxRelayTest {
+
+    @Autowired
+    OutboxWriter outboxWriter;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    InMemoryOutboxBus bus;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from outbox");
+    }
+
+    @Test
+    void append_whenNoTransaction_thenExceptionThrown() {
+
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxWriter.append(OutboxEvent.ITEM, 1L, OutboxEvent.ITEM_CREATED, Map.of("id", 1)));
+    }
+
+    @Test
+    void relay_whenEventsAppended_thenDeliveredInOrderAndRemoved() {
+
+        List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+        Runnable unsubscribe = bus.subscribe(received::add);
+        appendItems(1L, 2L, 3L);
+
+        outboxRelay.relay();
+        unsubscribe.run();
+
+        assertEquals(List.of(1L, 2L, 3L), received.stream()
+                .map(OutboxEvent::getAggregateId)
+                .collect(Collectors.toList()));
+        assertEquals("{\"id\":1}", received.get(0).getPayload());
+        assertEquals(OutboxEvent.ITEM_CREATED, received.get(0).getEventType());
+        assertEquals(0, count());
+    }
+
+    @Test
+    void drain_whenSinkFails_thenEventsKeptForRetry() {
+
+        appendItems(1L);
+        OutboxRelay failing = new OutboxRelay(jdbcTemplate, transactionTemplate, List.of(events -> {
+            throw new IllegalStateException("sink down");
+        }), 10, "for update");
+
+        assertThrows(IllegalStateException.class, failing::drain);
+        assertEquals(1, count());
+    }
+
+    private void appendItems(Long... ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long id : ids) {
+                outboxWriter.append(OutboxEvent.ITEM, id, OutboxEvent.ITEM_CREATED, Map.of("id", id));
+            }
+        });
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("select count(*) from outbox", Integer.class);
+    }
+}
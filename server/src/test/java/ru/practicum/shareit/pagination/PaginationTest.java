@@ -4,8 +4,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.PaginationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PaginationTest {
     private static final Sort CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
@@ -35,4 +43,45 @@ public class PaginationTest {
 
         assertEquals(expectedPageRequest, actualPageRequest);
     }
+
+    @Test
+    void keyset_whenValidSize_thenReturnFirstPageRequest() {
+
+        assertEquals(PageRequest.of(0, 10), Pagination.keyset(10));
+    }
+
+    @Test
+    void decode_whenEncodedCursor_thenReturnSameCursor() {
+
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123000), 42L);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_whenCursorWithoutKey_thenReturnCursorWithId() {
+
+        PageCursor cursor = PageCursor.decode(PageCursor.of(null, 7L).encode());
+
+        assertNull(cursor.getKey());
+        assertEquals(7L, cursor.getId());
+        assertThrows(PaginationException.class, cursor::requireKey);
+    }
+
+    @Test
+    void decode_whenInvalidToken_thenExceptionThrown() {
+
+        assertThrows(PaginationException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(PaginationException.class, () -> PageCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    @Test
+    void toResponse_whenPageIsFull_thenNextCursorHeaderPresent() {
+
+        ResponseEntity<List<Long>> full = PageCursor.toResponse(List.of(3L, 2L), 2, id -> PageCursor.of(null, id));
+        ResponseEntity<List<Long>> partial = PageCursor.toResponse(List.of(1L), 2, id -> PageCursor.of(null, id));
+
+        assertEquals(PageCursor.of(null, 2L).encode(), full.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+        assertFalse(partial.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+    }
 }
@@ -10,18 +10,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +38,8 @@ public class RequestControllerTest {
 
     @Mock
     private RequestServiceImpl itemRequestService;
+    @Mock
+    private IdempotencyStore idempotencyStore;
     @InjectMocks
     private ItemRequestController itemRequestController;
 
@@ -50,6 +56,9 @@ public class RequestControllerTest {
     @BeforeEach
     void startUp() {
 
+        lenient().when(idempotencyStore.execute(anyLong(), any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> ResponseEntity.ok(invocation.<Supplier<?>>getArgument(4).get()));
+
         mockMvc = MockMvcBuilders
                 .standaloneSetup(itemRequestController)
                 .build();
@@ -4,19 +4,21 @@ package ru.practicum.shareit.request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.pagination.Pagination;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.validation.IdValidator;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -32,9 +34,10 @@ import static org.mockito.Mockito.times;
 @ExtendWith(MockitoExtension.class)
 public class RequestServiceTest {
 
-    @InjectMocks
     private RequestServiceImpl requestService;
 
+    private IdValidator idValidator;
+
     @Mock
     private RequestRepository requestRepository;
 
@@ -47,13 +50,16 @@ public class RequestServiceTest {
     private ItemRequest itemRequest;
 
     private final Pageable pageable =
-            Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "created"));
+            Pagination.withSort(0, 10, Sort.by(Sort.Direction.DESC, "created", "id"));
 
     private User user;
 
 
     @BeforeEach
     void startUp() {
+        idValidator = new IdValidator(userRepository, itemRepository, requestRepository, 1024,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        requestService = new RequestServiceImpl(requestRepository, itemRepository, idValidator);
 
         user = User.builder()
                 .id(1L)
@@ -72,13 +78,14 @@ public class RequestServiceTest {
     @Test
     void createRequest_whenUserExists_thenReturnItemRequest() {
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(requestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
 
         ItemRequestResponseDto actualItemRequest = requestService.createRequest(user.getId(), new ItemRequestDto());
 
         assertEquals(RequestMapper.toItemRequestResponseDto(itemRequest, List.of()), actualItemRequest);
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
     }
 
     @Test
@@ -86,12 +93,12 @@ public class RequestServiceTest {
 
         Long userId = 99L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> requestService.createRequest(userId, new ItemRequestDto()));
 
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
         verify(requestRepository, never()).save(itemRequest);
     }
 
@@ -100,14 +107,14 @@ public class RequestServiceTest {
 
         List<ItemRequest> itemRequests = List.of(itemRequest);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findAllByRequestorId(1L, pageable)).thenReturn(itemRequests);
 
         List<ItemRequestResponseDto> actualList = requestService.getRequestsByOwner(user.getId(), 0, 10);
 
         assertEquals(1, actualList.size());
         assertEquals(RequestMapper.toItemRequestResponseDto(itemRequest, List.of()), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(requestRepository, times(1)).findAllByRequestorId(user.getId(), pageable);
     }
 
@@ -115,12 +122,12 @@ public class RequestServiceTest {
     void getRequestsByOwner_whenInvalidUserId_thenExceptionThrown() {
 
         Long userId = 99L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getRequestsByOwner(userId, 0, 10));
 
         verify(requestRepository, never()).findAllByRequestorId(userId, pageable);
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
 
     }
 
@@ -129,7 +136,7 @@ public class RequestServiceTest {
 
         List<ItemRequest> itemRequests = List.of(itemRequest);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdNot(1L, pageable)).thenReturn(itemRequests);
         when(itemRepository.findAllByRequestIdIn(anySet())).thenReturn(List.of());
 
@@ -137,7 +144,7 @@ public class RequestServiceTest {
 
         assertEquals(1, actualList.size());
         assertEquals(RequestMapper.toItemRequestResponseDto(itemRequest, List.of()), actualList.get(0));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(requestRepository, times(1)).findAllByRequestorIdNot(user.getId(), pageable);
     }
 
@@ -145,26 +152,26 @@ public class RequestServiceTest {
     void getAllRequests_whenInvalidUserId_thenExceptionThrown() {
 
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getAllRequests(userId, 0, 10));
 
 
         verify(requestRepository, never()).findAllByRequestorIdNot(userId, pageable);
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
 
     }
 
     @Test
     void getRequestsById_whenValidUserId_thenReturnItemReq() {
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
 
         ItemRequestResponseDto actualItemReq = requestService.getRequestsById(user.getId(), itemRequest.getId());
 
         assertEquals(RequestMapper.toItemRequestResponseDto(itemRequest, List.of()), actualItemReq);
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, times(1)).existsById(user.getId());
         verify(requestRepository, times(1)).findById(itemRequest.getId());
     }
 
@@ -172,12 +179,12 @@ public class RequestServiceTest {
     void getRequestsById_whenInvalidUserId_thenExceptionThrown() {
 
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getRequestsById(user.getId(), itemRequest.getId()));
 
         verify(requestRepository, never()).findById(itemRequest.getId());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
 
     }
 
@@ -185,14 +192,53 @@ public class RequestServiceTest {
     void getRequestsById_whenInvalidItemReqId_thenExceptionThrown() {
 
         long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getRequestsById(user.getId(), itemRequest.getId()));
 
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
         verify(requestRepository, times(1)).findById(itemRequest.getId());
     }
 
+    @Test
+    void getAllRequests_whenCursor_thenReturnNextRequestsInOrder() {
+
+        ItemRequest olderRequest = ItemRequest.builder()
+                .id(2L)
+                .description("older item request")
+                .created(itemRequest.getCreated().minusDays(1))
+                .requestor(user)
+                .build();
+        PageCursor after = PageCursor.of(LocalDateTime.of(2025, 2, 1, 10, 0, 0), 5L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findNextByRequestorIdNot(1L, after.getKey(), after.getId(), Pagination.keyset(10)))
+                .thenReturn(List.of(itemRequest, olderRequest));
+        when(itemRepository.findAllByRequestIdIn(anySet())).thenReturn(List.of());
+
+        List<ItemRequestResponseDto> actualList = requestService.getAllRequests(user.getId(), after, 10);
+
+        assertEquals(2, actualList.size());
+        assertEquals(itemRequest.getId(), actualList.get(0).getId());
+        assertEquals(olderRequest.getId(), actualList.get(1).getId());
+        verify(requestRepository, never()).findAllByRequestorIdNot(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getRequestsByOwner_whenCursor_thenReturnNextRequests() {
+
+        PageCursor after = PageCursor.of(LocalDateTime.of(2025, 2, 1, 10, 0, 0), 5L);
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findNextByRequestorId(1L, after.getKey(), after.getId(), Pagination.keyset(10)))
+                .thenReturn(List.of(itemRequest));
+
+        List<ItemRequestResponseDto> actualList = requestService.getRequestsByOwner(user.getId(), after, 10);
+
+        assertEquals(1, actualList.size());
+        assertEquals(RequestMapper.toItemRequestResponseDto(itemRequest, List.of()), actualList.get(0));
+    }
+
 }
@@ -5,9 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.IdValidator;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -17,12 +22,22 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
 
-    @InjectMocks
     private UserServiceImpl userService;
 
+    private IdValidator idValidator;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
 
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
@@ -31,6 +46,10 @@ public class UserServiceTest {
 
     @BeforeEach
     void startUp() {
+        idValidator = new IdValidator(userRepository, itemRepository, requestRepository, 1024,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        userService = new UserServiceImpl(userRepository, itemViewCache, idValidator);
+
         user = User.builder()
                 .id(1L)
                 .name("user")
@@ -170,11 +189,11 @@ public class UserServiceTest {
 
         Long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
 
         userService.deleteUserById(userId);
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
         verify(userRepository, times(1)).deleteById(userId);
     }
 
@@ -183,10 +202,10 @@ public class UserServiceTest {
 
         Long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> userService.deleteUserById(userId));
-        verify(userRepository, times(1)).findById(userId);
+        verify(userRepository, times(1)).existsById(userId);
         verify(userRepository, times(0)).deleteById(userId);
 
     }
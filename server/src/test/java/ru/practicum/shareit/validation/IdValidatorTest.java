@@ -0,0 +1,122 @@
+package ru.practicum.shareit.validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdValidatorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private IdValidator idValidator;
+
+    @BeforeEach
+    void setUp() {
+        idValidator = new IdValidator(userRepository, itemRepository, requestRepository, 1024,
+                Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void checkUser_whenCalledTwice_thenRepositoryHitOnce() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        idValidator.checkUser(1L);
+        idValidator.checkUser(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void checkUser_whenMissing_thenNegativeResultCached() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> idValidator.checkUser(99L));
+        assertThrows(EntityNotFoundException.class, () -> idValidator.checkUser(99L));
+
+        verify(userRepository, times(1)).existsById(99L);
+    }
+
+    @Test
+    void userCreated_whenPreviouslyMissing_thenCheckPasses() {
+        when(userRepository.existsById(5L)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> idValidator.checkUser(5L));
+
+        idValidator.userCreated(5L);
+        idValidator.checkUser(5L);
+
+        verify(userRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    void userDeleted_whenPreviouslyPresent_thenCheckFails() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        idValidator.checkUser(1L);
+
+        idValidator.userDeleted(1L);
+
+        assertThrows(EntityNotFoundException.class, () -> idValidator.checkUser(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void getUser_whenCalledTwice_thenEntityLoadedEachTime() {
+        User user = new User(1L, "name", "user@mail.ru");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(user, idValidator.getUser(1L));
+        assertEquals(user, idValidator.getUser(1L));
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getUserReference_whenExists_thenEntityNotLoaded() {
+        User reference = new User();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+
+        assertSame(reference, idValidator.getUserReference(1L));
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void longIdCache_whenMoreIdsThanSlots_thenOlderIdsEvicted() {
+        LongIdCache cache = new LongIdCache(2, Duration.ofMinutes(1));
+
+        for (long id = 1; id <= 16; id++) {
+            cache.add(id);
+        }
+
+        int hits = 0;
+        for (long id = 1; id <= 16; id++) {
+            if (cache.contains(id)) {
+                hits++;
+            }
+        }
+        assertTrue(hits <= cache.capacity());
+        assertTrue(cache.contains(16L));
+        assertFalse(cache.contains(0L));
+    }
+}